@@ -1,24 +1,57 @@
 package com.scheduler.demo.controller;
 
+import com.scheduler.demo.dto.BulkIngestResponse;
 import com.scheduler.demo.dto.CreateNotificationRequest;
+import com.scheduler.demo.dto.JobStats;
+import com.scheduler.demo.dto.NotificationPage;
 import com.scheduler.demo.dto.NotificationResponse;
 import com.scheduler.demo.model.NotificationJob;
+import com.scheduler.demo.service.BulkIngestService;
+import com.scheduler.demo.service.JobExportService;
+import com.scheduler.demo.service.JobStatsService;
+import com.scheduler.demo.service.JobStatusBroadcaster;
 import com.scheduler.demo.service.NotificationService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/notifications")
 public class NotificationController {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
     private final NotificationService notificationService;
+    private final BulkIngestService bulkIngestService;
+    private final JobExportService jobExportService;
+    private final JobStatsService jobStatsService;
+    private final JobStatusBroadcaster statusBroadcaster;
+
+    @Value("${app.api.status-batch.max-ids:5000}")
+    private int maxBatchIds;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService, BulkIngestService bulkIngestService,
+                                  JobExportService jobExportService, JobStatsService jobStatsService,
+                                  JobStatusBroadcaster statusBroadcaster) {
         this.notificationService = notificationService;
+        this.bulkIngestService = bulkIngestService;
+        this.jobExportService = jobExportService;
+        this.jobStatsService = jobStatsService;
+        this.statusBroadcaster = statusBroadcaster;
     }
 
     @PostMapping
@@ -26,36 +59,113 @@ public class NotificationController {
         if (req == null || req.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
-        List<NotificationResponse> jobs = new ArrayList<>();
-        for (CreateNotificationRequest r : req) {
-            NotificationJob job = notificationService.createJob(r);
+        List<NotificationResponse> jobs = new ArrayList<>(req.size());
+        for (NotificationJob job : notificationService.createJobs(req)) {
             jobs.add(new NotificationResponse(job.getId(), job.getStatus(), job.getSendAt(), job.getRecipientEmail(), job.getUserName()));
         }
         return ResponseEntity.ok(jobs);
     }
 
+    /**
+     * Streaming bulk ingest: NDJSON (application/x-ndjson) or CSV with a header line (text/csv).
+     * The body is read line by line and written with COPY, so it is never held in memory as a whole.
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<BulkIngestResponse> bulkCreate(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                         HttpServletRequest request) throws IOException {
+        BulkIngestService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)
+                ? BulkIngestService.Format.CSV
+                : BulkIngestService.Format.NDJSON;
+        return ResponseEntity.ok(bulkIngestService.ingest(request.getInputStream(), format));
+    }
+
+    /**
+     * Streaming export of all matching jobs: ?format=ndjson|csv, templateKey (campaign), status,
+     * from/to on sendAt (ISO date-time, from inclusive, to exclusive).
+     * Rows are written as they are read from the database cursor.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value="format", defaultValue="ndjson") String format,
+            @RequestParam(value="templateKey", required=false) String templateKey,
+            @RequestParam(value="status", required=false) String status,
+            @RequestParam(value="from", required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value="to", required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        JobExportService.Format exportFormat = csv ? JobExportService.Format.CSV : JobExportService.Format.NDJSON;
+        StreamingResponseBody body = out -> jobExportService.export(out, exportFormat, templateKey, status, from, to);
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "notifications.csv" : "notifications.ndjson")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Counts per status, backlog per type / template and overdue jobs, served from in-memory counters.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<JobStats> stats() {
+        return ResponseEntity.ok(jobStatsService.getStats());
+    }
+
+    /**
+     * Server-Sent Events stream of status transitions ("status" events carrying a JobStatusUpdate).
+     * Optional filters, combined with AND: jobId (repeatable), userId, templateKey (campaign).
+     * Returns 503 when the subscriber limit of this instance is reached.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam(value="jobId", required=false) Set<Long> jobIds,
+                                             @RequestParam(value="userId", required=false) Long userId,
+                                             @RequestParam(value="templateKey", required=false) String templateKey) {
+        SseEmitter emitter = statusBroadcaster.subscribe(new JobStatusBroadcaster.Filter(
+                jobIds == null ? Set.of() : Set.copyOf(jobIds), userId,
+                templateKey == null || templateKey.isBlank() ? null : templateKey));
+        return emitter != null ? ResponseEntity.ok(emitter) : ResponseEntity.status(503).build();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<NotificationResponse> get(@PathVariable Long id) {
-        return notificationService.findById(id)
-                .map(j -> ResponseEntity.ok(new NotificationResponse(j.getId(), j.getStatus(), j.getSendAt(), j.getRecipientEmail(), j.getUserName())))
+        return notificationService.getJobResponse(id)
+                .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Status of many jobs in one call: body is a JSON array of job ids (up to app.api.status-batch.max-ids).
+     * Unknown ids are left out of the response.
+     */
+    @PostMapping("/status:batch")
+    public ResponseEntity<List<NotificationResponse>> statusBatch(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > maxBatchIds || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(notificationService.getJobResponses(ids));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> cancel(@PathVariable Long id) {
         boolean ok = notificationService.cancelJob(id);
         return ok ? ResponseEntity.ok().build() : ResponseEntity.status(409).build();
     }
 
+    /**
+     * Keyset-paginated listing in (sendAt, id) order. Follow nextCursor until it is null.
+     */
     @GetMapping
-    public ResponseEntity<List<NotificationResponse>> list(@RequestParam(value="status", required=false) String status) {
-        // naive: load all and filter
-        List<NotificationResponse> list = notificationService
-                .findAllByStatus(status)
-                .stream()
-                .map(j -> new NotificationResponse(j.getId(), j.getStatus(), j.getSendAt(), j.getRecipientEmail(), j.getUserName()))
-                .toList();
-        return ResponseEntity.ok(list);
+    public ResponseEntity<NotificationPage> list(@RequestParam(value="status", required=false) String status,
+                                                 @RequestParam(value="cursor", required=false) String cursor,
+                                                 @RequestParam(value="limit", required=false) Integer limit) {
+        try {
+            return ResponseEntity.ok(notificationService.listJobs(status, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
 
@@ -0,0 +1,45 @@
+package com.scheduler.demo.controller;
+
+import com.scheduler.demo.dto.TemplateContent;
+import com.scheduler.demo.dto.TemplateRequest;
+import com.scheduler.demo.service.TemplateService;
+import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/templates")
+public class TemplateController {
+
+    private final TemplateService templateService;
+
+    public TemplateController(TemplateService templateService) {
+        this.templateService = templateService;
+    }
+
+    @GetMapping("/{key}")
+    public ResponseEntity<TemplateContent> get(@PathVariable String key) {
+        return templateService.getTemplate(key)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Create or replace a template; instances render the new version from their next send on.
+     */
+    @PutMapping("/{key}")
+    public ResponseEntity<TemplateContent> put(@PathVariable String key, @Valid @RequestBody TemplateRequest req) {
+        if (key.isBlank() || key.length() > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(templateService.saveTemplate(key, req.content()));
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            // Saved concurrently by another request
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
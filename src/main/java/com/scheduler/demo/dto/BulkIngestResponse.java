@@ -0,0 +1,26 @@
+package com.scheduler.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Summary returned by the streaming bulk-ingest endpoint
+ * (instead of one NotificationResponse per job).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestResponse {
+
+    private long accepted;            // rows written to notification_jobs
+    private long rejected;            // rows that failed parsing or validation
+    private Long firstJobId;
+    private Long lastJobId;
+    private long durationMs;
+    private List<String> errors;      // first few rejected lines, "line N: reason"
+}
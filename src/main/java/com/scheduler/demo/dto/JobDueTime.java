@@ -0,0 +1,9 @@
+package com.scheduler.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id and due time of a job - all the in-memory schedulers need to know about it.
+ */
+public record JobDueTime(Long id, LocalDateTime sendAt) {
+}
@@ -0,0 +1,19 @@
+package com.scheduler.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of a job export (everything except the payload).
+ */
+public record JobExportRow(Long id,
+                           Long userId,
+                           String userName,
+                           String recipientEmail,
+                           String type,
+                           String templateKey,
+                           LocalDateTime sendAt,
+                           String status,
+                           int attempts,
+                           LocalDateTime createdAt,
+                           LocalDateTime updatedAt) {
+}
@@ -0,0 +1,7 @@
+package com.scheduler.demo.dto;
+
+/**
+ * The immutable attributes status subscribers filter on and job statistics are broken down by.
+ */
+public record JobKeys(Long id, Long userId, String type, String templateKey) {
+}
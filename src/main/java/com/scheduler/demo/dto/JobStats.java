@@ -0,0 +1,25 @@
+package com.scheduler.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Job counts served by GET /api/notifications/stats (from in-memory counters, not a table scan).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobStats {
+
+    private Map<String, Long> byStatus;           // all jobs, kept current on every transition
+    private Map<String, Long> backlogByType;      // unfinished (PENDING / QUEUED / SENDING) jobs
+    private Map<String, Long> backlogByTemplate;
+    private long overdue;                         // PENDING / QUEUED jobs past send_at + grace
+    private LocalDateTime reconciledAt;           // last recount from PostgreSQL
+}
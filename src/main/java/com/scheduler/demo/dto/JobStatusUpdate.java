@@ -0,0 +1,9 @@
+package com.scheduler.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One status transition as pushed to SSE subscribers.
+ */
+public record JobStatusUpdate(Long id, String status, String previousStatus, LocalDateTime changedAt) {
+}
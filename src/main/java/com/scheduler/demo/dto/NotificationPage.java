@@ -0,0 +1,19 @@
+package com.scheduler.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of GET /api/notifications.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPage {
+
+    private List<NotificationResponse> items;
+    private String nextCursor;        // pass as ?cursor= for the next page; null on the last page
+}
@@ -0,0 +1,38 @@
+package com.scheduler.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (sendAt, id) ordering of jobs: the last row of the previous page.
+ * Handed to clients as an opaque URL-safe token.
+ */
+public record PageCursor(LocalDateTime sendAt, Long id) {
+
+    /** Position before every job (timestamp year 1 is within PostgreSQL's range, ids start at 1). */
+    public static final PageCursor START = new PageCursor(LocalDateTime.of(1, 1, 1, 0, 0), 0L);
+
+    public String encode() {
+        String raw = sendAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.scheduler.demo.dto;
+
+import java.io.Serializable;
+
+/**
+ * Raw template text with the version it was read at (cached in Redis by TemplateService).
+ */
+public record TemplateContent(String keyName, long version, String content) implements Serializable {
+}
@@ -0,0 +1,9 @@
+package com.scheduler.demo.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Body of PUT /api/templates/{key}.
+ */
+public record TemplateRequest(@NotNull String content) {
+}
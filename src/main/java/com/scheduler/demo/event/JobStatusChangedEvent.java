@@ -0,0 +1,18 @@
+package com.scheduler.demo.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published for every status transition made by this instance (one event per statement, so
+ * batch claims and promotions carry all affected ids). fromStatus is null for newly created jobs.
+ *
+ * Events raised inside a transaction are meant to be consumed with
+ * {@code @TransactionalEventListener(fallbackExecution = true)}, i.e. only once committed.
+ */
+public record JobStatusChangedEvent(List<Long> jobIds, String fromStatus, String toStatus, LocalDateTime changedAt) {
+
+    public JobStatusChangedEvent(List<Long> jobIds, String fromStatus, String toStatus) {
+        this(jobIds, fromStatus, toStatus, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,12 @@
+package com.scheduler.demo.event;
+
+import com.scheduler.demo.dto.JobDueTime;
+
+import java.util.List;
+
+/**
+ * Published after newly created PENDING jobs are committed (one event per insert chunk),
+ * so in-memory schedulers can pick them up without re-reading the table.
+ */
+public record NotificationJobsCreatedEvent(List<JobDueTime> jobs) {
+}
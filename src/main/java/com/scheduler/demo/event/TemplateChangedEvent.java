@@ -0,0 +1,7 @@
+package com.scheduler.demo.event;
+
+/**
+ * Published when a template was created or updated; caches drop the key once the change is committed.
+ */
+public record TemplateChangedEvent(String keyName, long version) {
+}
@@ -3,16 +3,38 @@ package com.scheduler.demo.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.SecondaryRow;
 
 import java.time.LocalDateTime;
 
+/**
+ * A scheduled notification, stored in two tables:
+ * - notification_jobs: immutable data (recipient, template, payload), written once
+ * - notification_job_state: the narrow, frequently updated scheduling state (status, lease, attempts)
+ *   plus a copy of send_at for the (status, send_at) index
+ * Status changes only rewrite the small state row: less WAL per transition, and only the state table's
+ * indexes are touched, which stay small. They are not HOT updates - status and lease_expires_at are
+ * indexed (idx_status_sendat, idx_status_lease), so every claim / finish / reap writes new index entries.
+ * Both tables share the id (job_id) and can be range-partitioned by send_at, so there is no foreign key.
+ */
 @Entity
-@Table(name = "notification_jobs", indexes = {
-        @Index(name = "idx_status_sendat", columnList = "status, send_at")
-})
+@Table(name = "notification_jobs",
+        indexes = @Index(name = "idx_jobs_sendat_id", columnList = "send_at, id"))
+@SecondaryTable(name = NotificationJob.STATE_TABLE,
+        pkJoinColumns = @PrimaryKeyJoinColumn(name = "job_id"),
+        foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT),
+        indexes = {
+                @Index(name = "idx_status_sendat", columnList = "status, send_at"),
+                @Index(name = "idx_status_lease", columnList = "status, lease_expires_at")
+        })
+@SecondaryRow(table = NotificationJob.STATE_TABLE, optional = false)
 public class NotificationJob {
+    public static final String STATE_TABLE = "notification_job_state";
+
+    // Sequence with pooled allocation so Hibernate can batch inserts (IDENTITY disables JDBC batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_jobs_seq")
+    @SequenceGenerator(name = "notification_jobs_seq", sequenceName = "notification_jobs_seq", allocationSize = 100)
     private Long id;
 
     private Long userId;
@@ -29,11 +51,15 @@ public class NotificationJob {
     @Column(length = 100)
     private String templateKey;
 
-    @Column(name = "send_at")
-    private LocalDateTime sendAt;
+    @Column(name = "send_at", nullable = false)
+    private LocalDateTime sendAt; // partition key when app.partitioning.enabled=true
+
+    // Copy of send_at in the state table (never changes; set together with sendAt)
+    @Column(name = "send_at", table = STATE_TABLE, nullable = false)
+    private LocalDateTime stateSendAt;
 
-    @Column(length = 20)
-    private String status; // PENDING, SENDING, COMPLETED, FAILED, CANCELLED
+    @Column(length = 20, table = STATE_TABLE)
+    private String status; // PENDING, QUEUED, SENDING, COMPLETED, FAILED, CANCELLED
 
     @Column(columnDefinition = "TEXT")
     private String payload; // JSON
@@ -41,9 +67,18 @@ public class NotificationJob {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
-    @Column(name = "updated_at")
+    @Column(name = "updated_at", table = STATE_TABLE)
     private LocalDateTime updatedAt;
 
+    @Column(name = "lease_owner", length = 100, table = STATE_TABLE)
+    private String leaseOwner; // instance currently sending this job
+
+    @Column(name = "lease_expires_at", table = STATE_TABLE)
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "attempts", nullable = false, table = STATE_TABLE)
+    private int attempts; // number of times a lease was taken on this job
+
     // Getters / setters omitted for brevity — include them in production or use IDE to generate
     // For brevity, I'll include full getters/setters below:
 
@@ -56,7 +91,7 @@ public class NotificationJob {
     public String getTemplateKey() { return templateKey; }
     public void setTemplateKey(String templateKey) { this.templateKey = templateKey; }
     public LocalDateTime getSendAt() { return sendAt; }
-    public void setSendAt(LocalDateTime sendAt) { this.sendAt = sendAt; }
+    public void setSendAt(LocalDateTime sendAt) { this.sendAt = sendAt; this.stateSendAt = sendAt; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     public String getPayload() { return payload; }
@@ -69,5 +104,11 @@ public class NotificationJob {
     public void setRecipientEmail(String recipientEmail) { this.recipientEmail = recipientEmail; }
     public String getUserName() { return userName; }
     public void setUserName(String userName) { this.userName = userName; }
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
 }
 
@@ -15,6 +15,9 @@ public class Template {
     @Column(columnDefinition = "TEXT")
     private String content; // with placeholders like {{orderId}}
 
+    @Version
+    private Long version; // bumped on every update; compiled templates are cached per version
+
     // Getters & setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -22,5 +25,7 @@ public class Template {
     public void setKeyName(String keyName) { this.keyName = keyName; }
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
 
@@ -1,17 +1,33 @@
 package com.scheduler.demo.repository;
 
 
+import com.scheduler.demo.dto.JobDueTime;
+import com.scheduler.demo.dto.JobKeys;
+import com.scheduler.demo.dto.NotificationResponse;
 import com.scheduler.demo.model.NotificationJob;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface NotificationJobRepository extends JpaRepository<NotificationJob, Long> {
+
+    /**
+     * Select list for native queries returning NotificationJob: immutable columns from notification_jobs (j)
+     * plus the state columns from notification_job_state (s). Join on send_at as well, so partitions prune.
+     */
+    String JOB_COLUMNS = "j.*, s.status, s.updated_at, s.lease_owner, s.lease_expires_at, s.attempts ";
+    String JOIN_JOBS = "JOIN notification_jobs j ON j.id = s.job_id AND j.send_at = s.send_at ";
+
     List<NotificationJob> findByStatusAndSendAtBefore(String status, LocalDateTime time);
 
     @Query("select n from NotificationJob n where n.status = :status")
@@ -22,16 +38,288 @@ public interface NotificationJobRepository extends JpaRepository<NotificationJob
      * Uses SKIP LOCKED to avoid blocking - each instance gets different jobs.
      * This is better for multi-instance deployments.
      */
-    @Query(value = "SELECT * FROM notification_jobs " +
-                   "WHERE status = :status AND send_at <= :now " +
-                   "ORDER BY send_at " +
+    @Query(value = "SELECT " + JOB_COLUMNS +
+                   "FROM notification_job_state s " + JOIN_JOBS +
+                   "WHERE s.status = :status AND s.send_at <= :now " +
+                   "ORDER BY s.send_at " +
                    "LIMIT :limit " +
-                   "FOR UPDATE SKIP LOCKED",
+                   "FOR UPDATE OF s SKIP LOCKED",
            nativeQuery = true)
     List<NotificationJob> fetchPendingWithLock(
         @Param("status") String status,
         @Param("now") LocalDateTime now,
         @Param("limit") int limit
     );
-}
 
+    /**
+     * Claim due pending jobs in a single statement.
+     * Same selection as {@link #fetchPendingWithLock}, but the locked rows are switched
+     * to SENDING with a lease for the given owner and returned, so the row lock is only
+     * held for the duration of this statement.
+     * Jobs are due when send_at <= dueBefore (usually now).
+     */
+    @Transactional
+    @Query(value = "WITH s AS (" +
+                   "UPDATE notification_job_state " +
+                   "SET status = 'SENDING', lease_owner = :owner, lease_expires_at = :leaseUntil, " +
+                   "attempts = attempts + 1, updated_at = :now " +
+                   "WHERE job_id IN (" +
+                   "SELECT job_id FROM notification_job_state " +
+                   "WHERE status = 'PENDING' AND send_at <= :dueBefore " +
+                   "ORDER BY send_at " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING *) " +
+                   "SELECT " + JOB_COLUMNS + "FROM s " + JOIN_JOBS,
+           nativeQuery = true)
+    List<NotificationJob> claimDueJobs(
+        @Param("owner") String owner,
+        @Param("dueBefore") LocalDateTime dueBefore,
+        @Param("now") LocalDateTime now,
+        @Param("leaseUntil") LocalDateTime leaseUntil,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Claim specific PENDING jobs (fired by the timing wheel) in a single statement.
+     * Jobs another instance already claimed are simply not returned.
+     */
+    @Transactional
+    @Query(value = "WITH s AS (" +
+                   "UPDATE notification_job_state " +
+                   "SET status = 'SENDING', lease_owner = :owner, lease_expires_at = :leaseUntil, " +
+                   "attempts = attempts + 1, updated_at = :now " +
+                   "WHERE job_id IN (:ids) AND status = 'PENDING' " +
+                   "RETURNING *) " +
+                   "SELECT " + JOB_COLUMNS + "FROM s " + JOIN_JOBS,
+           nativeQuery = true)
+    List<NotificationJob> claimJobs(
+        @Param("ids") Collection<Long> ids,
+        @Param("owner") String owner,
+        @Param("now") LocalDateTime now,
+        @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+
+    /**
+     * Due times of PENDING jobs with send_at in (after, to], in (sendAt, id) order.
+     * Keyset paging: pass the last row of the previous page as afterSendAt/afterId
+     * (afterId = Long.MAX_VALUE for the first page). Served by idx_status_sendat.
+     */
+    @Query("select new com.scheduler.demo.dto.JobDueTime(n.id, n.stateSendAt) from NotificationJob n " +
+           "where n.status = 'PENDING' and n.stateSendAt <= :to " +
+           "and (n.stateSendAt > :afterSendAt or (n.stateSendAt = :afterSendAt and n.id > :afterId)) " +
+           "order by n.stateSendAt, n.id")
+    List<JobDueTime> findPendingDueTimes(
+        @Param("afterSendAt") LocalDateTime afterSendAt,
+        @Param("afterId") Long afterId,
+        @Param("to") LocalDateTime to,
+        Limit limit
+    );
+
+    /**
+     * Single job as NotificationResponse, without loading the payload.
+     */
+    @Query("select new com.scheduler.demo.dto.NotificationResponse(n.id, n.status, n.sendAt, n.recipientEmail, n.userName) " +
+           "from NotificationJob n where n.id = :id")
+    Optional<NotificationResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Many jobs as NotificationResponse in one primary-key IN query (padded, see in_clause_parameter_padding).
+     */
+    @Query("select new com.scheduler.demo.dto.NotificationResponse(n.id, n.status, n.sendAt, n.recipientEmail, n.userName) " +
+           "from NotificationJob n where n.id in :ids")
+    List<NotificationResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * User, type and template of the given jobs (status event consumers filter on them).
+     */
+    @Query("select new com.scheduler.demo.dto.JobKeys(n.id, n.userId, n.type, n.templateKey) " +
+           "from NotificationJob n where n.id in :ids")
+    List<JobKeys> findJobKeys(@Param("ids") Collection<Long> ids);
+
+    /**
+     * One page of jobs in (sendAt, id) order after the given position, projected straight into
+     * NotificationResponse (payload is never read). Served by idx_jobs_sendat_id.
+     */
+    @Query("select new com.scheduler.demo.dto.NotificationResponse(n.id, n.status, n.sendAt, n.recipientEmail, n.userName) " +
+           "from NotificationJob n " +
+           "where n.sendAt > :afterSendAt or (n.sendAt = :afterSendAt and n.id > :afterId) " +
+           "order by n.sendAt, n.id")
+    List<NotificationResponse> findPage(
+        @Param("afterSendAt") LocalDateTime afterSendAt,
+        @Param("afterId") Long afterId,
+        Limit limit
+    );
+
+    /**
+     * Same as findPage for a single status. Served by idx_status_sendat.
+     */
+    @Query("select new com.scheduler.demo.dto.NotificationResponse(n.id, n.status, n.sendAt, n.recipientEmail, n.userName) " +
+           "from NotificationJob n " +
+           "where n.status = :status " +
+           "and (n.stateSendAt > :afterSendAt or (n.stateSendAt = :afterSendAt and n.id > :afterId)) " +
+           "order by n.stateSendAt, n.id")
+    List<NotificationResponse> findPageByStatus(
+        @Param("status") String status,
+        @Param("afterSendAt") LocalDateTime afterSendAt,
+        @Param("afterId") Long afterId,
+        Limit limit
+    );
+
+    /**
+     * Hand claimed jobs back to the pool (e.g. when the executor rejected them) and return the released ids.
+     * Only rows still leased by the given owner are touched. The attempt is given back as well; that keeps
+     * attempts usable as lease token because a released claim never reached a worker.
+     */
+    @Transactional
+    @Query(value = "UPDATE notification_job_state " +
+                   "SET status = 'PENDING', lease_owner = NULL, lease_expires_at = NULL, " +
+                   "attempts = attempts - 1, updated_at = :now " +
+                   "WHERE job_id IN (:ids) AND status = 'SENDING' AND lease_owner = :owner " +
+                   "RETURNING job_id",
+           nativeQuery = true)
+    List<Long> releaseClaims(
+        @Param("ids") Collection<Long> ids,
+        @Param("owner") String owner,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Take the lease on a single job that was delivered through SQS.
+     *
+     * @return the new attempt number (the lease token), or empty when the job is no longer PENDING/QUEUED,
+     *         i.e. another instance already took it
+     */
+    @Transactional
+    @Query(value = "UPDATE notification_job_state " +
+                   "SET status = 'SENDING', lease_owner = :owner, lease_expires_at = :leaseUntil, " +
+                   "attempts = attempts + 1, updated_at = :now " +
+                   "WHERE job_id = :id AND status IN ('PENDING', 'QUEUED') " +
+                   "RETURNING attempts",
+           nativeQuery = true)
+    Optional<Integer> acquireLease(
+        @Param("id") Long id,
+        @Param("owner") String owner,
+        @Param("now") LocalDateTime now,
+        @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+
+    /**
+     * Compare-and-set status transition: only applies while the job is in one of the from states.
+     * Returns 0 when the job is in another state (e.g. a duplicate delivery lost the race).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notification_job_state SET status = :to, updated_at = :now " +
+                   "WHERE job_id = :id AND status IN (:from)",
+           nativeQuery = true)
+    int transition(
+        @Param("id") Long id,
+        @Param("from") Collection<String> from,
+        @Param("to") String to,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Move a SENDING job to its final status and release the lease - only if the given owner still holds
+     * the lease of this attempt. Every claim increments attempts, so it doubles as the lease token: a worker
+     * whose lease expired cannot finish a later lease on the same job, not even one taken by its own instance.
+     * Returns 0 when the lease was lost (expired and re-queued by the reaper) in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notification_job_state " +
+                   "SET status = :to, lease_owner = NULL, lease_expires_at = NULL, updated_at = :now " +
+                   "WHERE job_id = :id AND status = 'SENDING' AND lease_owner = :owner AND attempts = :attempt",
+           nativeQuery = true)
+    int finishLease(
+        @Param("id") Long id,
+        @Param("owner") String owner,
+        @Param("attempt") int attempt,
+        @Param("to") String to,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Re-queue jobs whose lease expired while SENDING (the owning instance died mid-send).
+     * Jobs that already used up their attempts are marked FAILED instead.
+     * Uses idx_status_lease; SKIP LOCKED lets several reapers run at once.
+     *
+     * @return one (job_id, new status) row per recovered job
+     */
+    @Transactional
+    @Query(value = "UPDATE notification_job_state " +
+                   "SET status = CASE WHEN attempts >= :maxAttempts THEN 'FAILED' ELSE 'PENDING' END, " +
+                   "lease_owner = NULL, lease_expires_at = NULL, updated_at = :now " +
+                   "WHERE job_id IN (" +
+                   "SELECT job_id FROM notification_job_state " +
+                   "WHERE status = 'SENDING' AND lease_expires_at < :now " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING job_id, status",
+           nativeQuery = true)
+    List<Object[]> requeueExpiredLeases(
+        @Param("now") LocalDateTime now,
+        @Param("maxAttempts") int maxAttempts,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Promote PENDING jobs due in (:dueAfter, :until] to QUEUED, earliest first, and return their ids.
+     * Used by the SQS promoter; the caller writes the outbox entries in the same transaction.
+     * Jobs due up to :dueAfter - including those that fell back from SQS - are left to the DB dispatcher.
+     */
+    @Transactional
+    @Query(value = "UPDATE notification_job_state SET status = 'QUEUED', updated_at = :now " +
+                   "WHERE job_id IN (" +
+                   "SELECT job_id FROM notification_job_state " +
+                   "WHERE status = 'PENDING' AND send_at > :dueAfter AND send_at <= :until " +
+                   "ORDER BY send_at " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING job_id",
+           nativeQuery = true)
+    List<Long> promoteToQueued(
+        @Param("dueAfter") LocalDateTime dueAfter,
+        @Param("until") LocalDateTime until,
+        @Param("now") LocalDateTime now,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Move jobs that could not be handed to SQS back to PENDING so the DB dispatcher picks them up.
+     */
+    @Transactional
+    @Query(value = "UPDATE notification_job_state SET status = 'PENDING', updated_at = :now " +
+                   "WHERE job_id IN (:ids) AND status = 'QUEUED' " +
+                   "RETURNING job_id",
+           nativeQuery = true)
+    List<Long> fallBackToPending(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Number of jobs per status (reconciliation of the in-memory counters; a scan of the narrow state table).
+     *
+     * @return (status, count) rows
+     */
+    @Query(value = "SELECT status, count(*) FROM notification_job_state GROUP BY status", nativeQuery = true)
+    List<Object[]> countByStatus();
+
+    /**
+     * Unfinished (PENDING / QUEUED / SENDING) jobs per type and template. Served by idx_status_sendat.
+     *
+     * @return (type, template_key, count) rows
+     */
+    @Query(value = "SELECT j.type, j.template_key, count(*) FROM notification_job_state s " + JOIN_JOBS +
+                   "WHERE s.status IN ('PENDING', 'QUEUED', 'SENDING') " +
+                   "GROUP BY j.type, j.template_key",
+           nativeQuery = true)
+    List<Object[]> countBacklogByTypeAndTemplate();
+
+    /**
+     * Jobs still waiting (PENDING / QUEUED) although they were due before the given time.
+     */
+    @Query(value = "SELECT count(*) FROM notification_job_state " +
+                   "WHERE status IN ('PENDING', 'QUEUED') AND send_at < :dueBefore",
+           nativeQuery = true)
+    long countOverdue(@Param("dueBefore") LocalDateTime dueBefore);
+}
@@ -0,0 +1,35 @@
+package com.scheduler.demo.repository;
+
+import com.scheduler.demo.model.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Lock the oldest unclaimed outbox entries (or those whose claim expired) for relaying.
+     * SKIP LOCKED lets several relays drain the outbox in parallel. Must run inside a transaction.
+     */
+    @Query(value = "SELECT * FROM notification_outbox " +
+                   "WHERE claimed_until IS NULL OR claimed_until < :now " +
+                   "ORDER BY id " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<NotificationOutbox> lockBatch(@Param("limit") int limit, @Param("now") LocalDateTime now);
+
+    /**
+     * Give claimed entries back after a failed send, counting the attempt.
+     */
+    @Modifying
+    @Query(value = "UPDATE notification_outbox SET attempts = attempts + 1, claimed_until = NULL " +
+                   "WHERE id IN (:ids)",
+           nativeQuery = true)
+    int releaseForRetry(@Param("ids") Collection<Long> ids);
+}
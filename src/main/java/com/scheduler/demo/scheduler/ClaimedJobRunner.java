@@ -0,0 +1,148 @@
+package com.scheduler.demo.scheduler;
+
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import com.scheduler.demo.model.NotificationJob;
+import com.scheduler.demo.repository.NotificationJobRepository;
+import com.scheduler.demo.service.InstanceIdentity;
+import com.scheduler.demo.service.LeaseHeartbeat;
+import com.scheduler.demo.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Shared plumbing of the dispatchers: claim jobs in PostgreSQL and run them on the notificationExecutor -
+ * by id for the in-memory / Redis dispatchers, by due time for the polling dispatcher and the sweeps
+ * that pick up overdue jobs the in-memory / Redis dispatchers missed.
+ *
+ * Callers hold one WorkerCapacity slot per job they ask to claim; unused slots are released here.
+ */
+@Component
+@Slf4j
+public class ClaimedJobRunner {
+
+    private final NotificationJobRepository jobRepository;
+    private final NotificationService notificationService;
+    private final Executor notificationExecutor;
+    private final InstanceIdentity instanceIdentity;
+    private final WorkerCapacity workerCapacity;
+    private final LeaseHeartbeat leaseHeartbeat;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.scheduler.lease-seconds:300}")
+    private int leaseSeconds;
+
+    public ClaimedJobRunner(NotificationJobRepository jobRepository,
+                            NotificationService notificationService,
+                            Executor notificationExecutor,
+                            InstanceIdentity instanceIdentity,
+                            WorkerCapacity workerCapacity,
+                            LeaseHeartbeat leaseHeartbeat,
+                            ApplicationEventPublisher eventPublisher) {
+        this.jobRepository = jobRepository;
+        this.notificationService = notificationService;
+        this.notificationExecutor = notificationExecutor;
+        this.instanceIdentity = instanceIdentity;
+        this.workerCapacity = workerCapacity;
+        this.leaseHeartbeat = leaseHeartbeat;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Claim the given PENDING jobs (one slot held per id) and run the ones this instance got.
+     *
+     * @return the claimed jobs; ids missing from it were taken elsewhere or are no longer PENDING
+     */
+    public List<NotificationJob> claimAndRun(Collection<Long> ids, Consumer<NotificationJob> onFinished) {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationJob> jobs;
+        try {
+            jobs = jobRepository.claimJobs(ids, instanceIdentity.getId(), now, now.plusSeconds(leaseSeconds));
+        } catch (RuntimeException e) {
+            workerCapacity.release(ids.size());
+            throw e;
+        }
+        workerCapacity.release(ids.size() - jobs.size());
+        run(jobs, onFinished);
+        return jobs;
+    }
+
+    /**
+     * Claim and run PENDING jobs that are more than graceMs overdue, batch by batch (one slot per job)
+     * while full batches come back. With a grace this sweeps up jobs an in-memory dispatcher does not
+     * know about (due before startup, re-queued by the LeaseReaper, fired on an instance that died).
+     *
+     * @return number of jobs handed to the executor
+     */
+    public int claimDueAndRun(long graceMs, int batchSize) {
+        int total = 0;
+        int claimed;
+        do {
+            int slots = workerCapacity.tryAcquireUpTo(batchSize);
+            if (slots == 0) {
+                break;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<NotificationJob> jobs;
+            try {
+                jobs = jobRepository.claimDueJobs(instanceIdentity.getId(), now.minusNanos(graceMs * 1_000_000),
+                        now, now.plusSeconds(leaseSeconds), slots);
+            } catch (RuntimeException e) {
+                workerCapacity.release(slots);
+                throw e;
+            }
+            workerCapacity.release(slots - jobs.size());
+            claimed = run(jobs, job -> {});
+            total += claimed;
+        } while (claimed == batchSize);
+        return total;
+    }
+
+    /**
+     * Hand claimed jobs (one slot held for each) to the executor.
+     * Jobs the executor rejects are released back to PENDING.
+     *
+     * @return number of jobs submitted
+     */
+    private int run(List<NotificationJob> jobs, Consumer<NotificationJob> onFinished) {
+        // The lease runs from now on, including the wait in the executor queue
+        leaseHeartbeat.track(jobs);
+        if (!jobs.isEmpty()) {
+            eventPublisher.publishEvent(new JobStatusChangedEvent(
+                    jobs.stream().map(NotificationJob::getId).toList(), "PENDING", "SENDING"));
+        }
+        for (int i = 0; i < jobs.size(); i++) {
+            NotificationJob job = jobs.get(i);
+            try {
+                workerCapacity.execute(notificationExecutor, () -> process(job, onFinished));
+            } catch (RejectedExecutionException e) {
+                workerCapacity.release(jobs.size() - i - 1);
+                leaseHeartbeat.untrackAll(jobs.subList(i, jobs.size()));
+                List<Long> unsubmitted = jobs.subList(i, jobs.size()).stream().map(NotificationJob::getId).toList();
+                List<Long> released = jobRepository.releaseClaims(unsubmitted, instanceIdentity.getId(), LocalDateTime.now());
+                eventPublisher.publishEvent(new JobStatusChangedEvent(released, "SENDING", "PENDING"));
+                log.warn("⚠️  [Dispatcher] Executor saturated, released {} claimed jobs", released.size());
+                return i;
+            }
+        }
+        return jobs.size();
+    }
+
+    private void process(NotificationJob job, Consumer<NotificationJob> onFinished) {
+        try {
+            notificationService.processClaimedJob(job);
+        } catch (Exception e) {
+            log.error("❌ [Dispatcher] Failed to process job {}: {}", job.getId(), e.getMessage(), e);
+        } finally {
+            onFinished.accept(job);
+        }
+    }
+}
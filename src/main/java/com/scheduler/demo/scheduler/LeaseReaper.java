@@ -0,0 +1,80 @@
+package com.scheduler.demo.scheduler;
+
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import com.scheduler.demo.repository.NotificationJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recovers jobs stuck in SENDING after the instance holding their lease crashed.
+ * Leases of jobs that are still queued or sending are kept alive by the LeaseHeartbeat, so only
+ * dead (or stuck, see max-extension-seconds) owners let a lease expire.
+ *
+ * Expired leases are put back to PENDING (picked up again by the DB dispatcher, or by
+ * the redelivered SQS message) or marked FAILED once max-attempts is reached.
+ * Runs on every instance; SKIP LOCKED keeps concurrent reapers out of each other's way.
+ */
+@Component
+@Slf4j
+public class LeaseReaper {
+
+    private final NotificationJobRepository jobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.scheduler.reaper.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.scheduler.reaper.max-attempts:5}")
+    private int maxAttempts;
+
+    public LeaseReaper(NotificationJobRepository jobRepository, ApplicationEventPublisher eventPublisher) {
+        this.jobRepository = jobRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.reaper.interval-ms:30000}")
+    public void reapExpiredLeases() {
+        try {
+            int total = 0;
+            int reaped;
+            do {
+                reaped = recover();
+                total += reaped;
+            } while (reaped == batchSize);
+
+            if (total > 0) {
+                log.warn("♻️  [Lease Reaper] Recovered {} jobs with expired leases", total);
+            }
+        } catch (Exception e) {
+            log.error("❌ [Lease Reaper] Failed to recover expired leases: {}", e.getMessage(), e);
+        }
+    }
+
+    private int recover() {
+        List<Object[]> rows = jobRepository.requeueExpiredLeases(LocalDateTime.now(), maxAttempts, batchSize);
+        List<Long> requeued = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        for (Object[] row : rows) {
+            Long jobId = ((Number) row[0]).longValue();
+            if ("FAILED".equals(row[1])) {
+                failed.add(jobId);
+            } else {
+                requeued.add(jobId);
+            }
+        }
+        if (!requeued.isEmpty()) {
+            eventPublisher.publishEvent(new JobStatusChangedEvent(requeued, "SENDING", "PENDING"));
+        }
+        if (!failed.isEmpty()) {
+            eventPublisher.publishEvent(new JobStatusChangedEvent(failed, "SENDING", "FAILED"));
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,185 @@
+package com.scheduler.demo.scheduler;
+
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import com.scheduler.demo.model.NotificationJob;
+import com.scheduler.demo.model.NotificationOutbox;
+import com.scheduler.demo.repository.NotificationJobRepository;
+import com.scheduler.demo.repository.NotificationOutboxRepository;
+import com.scheduler.demo.service.SqsNotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Relays outbox entries to SQS.
+ *
+ * Flow:
+ * 1. NotificationService writes the job and its outbox entry in one transaction (no SQS call on the request path)
+ * 2. This relay claims a batch of outbox entries (FOR UPDATE SKIP LOCKED, then claimed_until) in a short
+ *    transaction, and sends the jobs to SQS with SendMessageBatch (10 jobs per call) outside any transaction
+ * 3. A second short transaction deletes sent entries; failed ones are released for a retry,
+ *    and after max-attempts the job falls back to PENDING
+ *
+ * No connection or row lock is held during the SQS calls. Delivery is at-least-once: a crash after the send
+ * but before the second transaction resends the batch once the claim expires, which the consumer tolerates
+ * because it takes a lease before sending.
+ *
+ * Only active when aws.sqs.enabled=true
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "aws.sqs.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationJobRepository jobRepository;
+    private final SqsNotificationService sqsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.claim-seconds:60}")
+    private long claimSeconds;
+
+    @Value("${app.outbox.max-attempts:3}")
+    private int maxAttempts;
+
+    public OutboxRelay(NotificationOutboxRepository outboxRepository,
+                       NotificationJobRepository jobRepository,
+                       SqsNotificationService sqsService,
+                       ApplicationEventPublisher eventPublisher,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.jobRepository = jobRepository;
+        this.sqsService = sqsService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed != null && relayed == batchSize);
+        } catch (Exception e) {
+            log.error("❌ [Outbox Relay] Error relaying outbox: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Relay one batch: claim it, send it, then record the outcome.
+     *
+     * @return number of outbox entries finished (entries kept for retry are not counted,
+     *         so a failing batch waits for the next run instead of being retried in a tight loop)
+     */
+    private int relayBatch() {
+        Claim claim = transactionTemplate.execute(tx -> claimBatch());
+        if (claim == null || claim.entries().isEmpty()) {
+            return 0;
+        }
+
+        // One SendMessageBatch call per 10 jobs
+        Set<Long> failed = new HashSet<>(sqsService.sendBatchToQueue(claim.toSend()).failedJobIds());
+
+        List<Long> done = new ArrayList<>(claim.done());
+        List<Long> retry = new ArrayList<>();
+        List<Long> fallBack = new ArrayList<>();
+        for (NotificationOutbox entry : claim.pending()) {
+            if (!failed.contains(entry.getJobId())) {
+                done.add(entry.getId());
+            } else if (entry.getAttempts() + 1 >= maxAttempts) {
+                done.add(entry.getId());
+                fallBack.add(entry.getJobId());
+            } else {
+                retry.add(entry.getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(tx -> finishBatch(done, retry, fallBack));
+
+        log.info("📤 [Outbox Relay] Relayed {} of {} outbox entries",
+                done.size() - fallBack.size(), claim.entries().size());
+        return done.size();
+    }
+
+    /**
+     * Lock a batch, mark it claimed for claim-seconds and load its jobs (runs in a transaction).
+     */
+    private Claim claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> entries = outboxRepository.lockBatch(batchSize, now);
+        if (entries.isEmpty()) {
+            return new Claim(entries, List.of(), List.of(), List.of());
+        }
+        LocalDateTime claimedUntil = now.plusSeconds(claimSeconds);
+        entries.forEach(entry -> entry.setClaimedUntil(claimedUntil));
+
+        Map<Long, NotificationJob> jobs = jobRepository
+                .findAllById(entries.stream().map(NotificationOutbox::getJobId).toList())
+                .stream()
+                .collect(Collectors.toMap(NotificationJob::getId, Function.identity()));
+
+        List<Long> done = new ArrayList<>();
+        List<NotificationOutbox> pending = new ArrayList<>();
+        List<NotificationJob> toSend = new ArrayList<>();
+        for (NotificationOutbox entry : entries) {
+            NotificationJob job = jobs.get(entry.getJobId());
+            if (job == null || !"QUEUED".equals(job.getStatus())) {
+                // Deleted or cancelled in the meantime - nothing to send
+                done.add(entry.getId());
+                continue;
+            }
+            pending.add(entry);
+            toSend.add(job);
+        }
+        return new Claim(entries, done, pending, toSend);
+    }
+
+    /**
+     * Delete finished entries, release failed ones and fall jobs back to PENDING (runs in a transaction).
+     */
+    private void finishBatch(List<Long> done, List<Long> retry, List<Long> fallBack) {
+        if (!done.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(done);
+        }
+        if (!retry.isEmpty()) {
+            outboxRepository.releaseForRetry(retry);
+        }
+        if (!fallBack.isEmpty()) {
+            // Fallback to polling
+            List<Long> pendingAgain = jobRepository.fallBackToPending(fallBack, LocalDateTime.now());
+            if (!pendingAgain.isEmpty()) {
+                eventPublisher.publishEvent(new JobStatusChangedEvent(pendingAgain, "QUEUED", "PENDING"));
+            }
+            log.warn("⚠️  [Outbox Relay] Gave up sending {} jobs to SQS. Will be picked up by scheduler. Job IDs: {}",
+                    fallBack.size(), fallBack);
+        }
+    }
+
+    /**
+     * A claimed batch: done holds ids of entries with nothing to send, pending the entries whose jobs are in toSend.
+     */
+    private record Claim(List<NotificationOutbox> entries,
+                         List<Long> done,
+                         List<NotificationOutbox> pending,
+                         List<NotificationJob> toSend) {
+    }
+}
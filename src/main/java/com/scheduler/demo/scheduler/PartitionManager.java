@@ -0,0 +1,236 @@
+package com.scheduler.demo.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Native range partitioning of notification_jobs and notification_job_state by send_at.
+ *
+ * On startup the tables Hibernate created are converted into partitioned tables
+ * (primary key (id, send_at), same indexes, plus a default partition). Both tables get
+ * partitions for the same ranges, so a job and its state always live in matching partitions.
+ * After that:
+ * - daily or weekly partitions are created ahead of time (rows already sitting in the default
+ *   partition for that range are moved into the new partition before it is attached)
+ * - partitions that ended more than retention-days ago are detached (kept as standalone tables)
+ *   or dropped, instead of deleting rows one by one; partitions with unfinished jobs are kept
+ *
+ * Queries filtering on send_at (claims, window loads) only touch the matching partitions,
+ * and every partition has its own small (status, send_at) index.
+ * DDL runs under a PostgreSQL advisory lock, so several instances can run this side by side.
+ *
+ * Only active when app.partitioning.enabled=true
+ */
+@Component
+@Slf4j
+@DependsOn("entityManagerFactory") // Hibernate must have created the schema first
+@ConditionalOnProperty(name = "app.partitioning.enabled", havingValue = "true")
+public class PartitionManager {
+
+    public enum Interval { DAILY, WEEKLY }
+
+    private record PartitionedTable(String name, String keyColumn, Map<String, String> indexes) {}
+
+    private static final PartitionedTable JOBS = new PartitionedTable("notification_jobs", "id", Map.of(
+            "idx_jobs_sendat_id", "(send_at, id)"));
+    private static final PartitionedTable STATE = new PartitionedTable("notification_job_state", "job_id", Map.of(
+            "idx_status_sendat", "(status, send_at)",
+            "idx_status_lease", "(status, lease_expires_at)"));
+    private static final List<PartitionedTable> TABLES = List.of(JOBS, STATE);
+    private static final long ADVISORY_LOCK_KEY = 7_305_118_440_417L; // any constant shared by all instances
+    private static final DateTimeFormatter NAME_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.partitioning.interval:daily}")
+    private String interval;
+
+    @Value("${app.partitioning.premake:7}")
+    private int premake;
+
+    @Value("${app.partitioning.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${app.partitioning.retention-action:detach}")
+    private String retentionAction;
+
+    public PartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            // Wait for an instance that is converting right now
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, ADVISORY_LOCK_KEY);
+            for (PartitionedTable table : TABLES) {
+                if (!isPartitioned(table)) {
+                    convertToPartitioned(table);
+                }
+            }
+        });
+        maintain();
+    }
+
+    /**
+     * Create upcoming partitions and retire expired ones.
+     */
+    @Scheduled(fixedDelayString = "${app.partitioning.maintenance-interval-ms:3600000}",
+               initialDelayString = "${app.partitioning.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        try {
+            Interval period = Interval.valueOf(interval.toUpperCase(Locale.ROOT));
+            LocalDate start = periodStart(LocalDate.now(), period);
+            for (int i = 0; i <= premake; i++) {
+                LocalDate end = next(start, period);
+                createPartition(start, end);
+                start = end;
+            }
+            retireExpiredPartitions();
+        } catch (Exception e) {
+            log.error("❌ [Partitions] Maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean isPartitioned(PartitionedTable table) {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                "WHERE c.relname = ? AND pg_table_is_visible(c.oid))", Boolean.class, table.name());
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    /**
+     * Swap the plain table for a partitioned one with the same columns, copying existing rows over.
+     * A partitioned table's primary key must contain the partition key, hence (id, send_at).
+     */
+    private void convertToPartitioned(PartitionedTable table) {
+        log.info("🧱 [Partitions] Converting {} into a table partitioned by send_at", table.name());
+        String name = table.name();
+        String old = name + "_unpartitioned";
+        jdbcTemplate.execute("ALTER TABLE " + name + " RENAME TO " + old);
+        // Index and constraint names are schema-wide; free them for the new table
+        jdbcTemplate.execute("ALTER TABLE " + old + " DROP CONSTRAINT IF EXISTS " + name + "_pkey");
+        table.indexes().keySet().forEach(index -> jdbcTemplate.execute("DROP INDEX IF EXISTS " + index));
+
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + old + " INCLUDING DEFAULTS) PARTITION BY RANGE (send_at)");
+        jdbcTemplate.execute("ALTER TABLE " + name + " ADD PRIMARY KEY (" + table.keyColumn() + ", send_at)");
+        table.indexes().forEach((index, columns) ->
+                jdbcTemplate.execute("CREATE INDEX " + index + " ON " + name + " " + columns));
+        jdbcTemplate.execute("CREATE TABLE " + name + "_default PARTITION OF " + name + " DEFAULT");
+
+        int copied = jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM " + old);
+        jdbcTemplate.execute("DROP TABLE " + old);
+        log.info("✅ [Partitions] {} is partitioned ({} existing rows copied)", name, copied);
+    }
+
+    private void createPartition(LocalDate from, LocalDate to) {
+        String suffix = "_p" + from.format(NAME_SUFFIX);
+        if (TABLES.stream().allMatch(table -> exists(table.name() + suffix))) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (!tryLock()) {
+                return;
+            }
+            String lower = from.atStartOfDay().toString();
+            String upper = to.atStartOfDay().toString();
+            for (PartitionedTable table : TABLES) {
+                String name = table.name() + suffix;
+                if (exists(name)) {
+                    continue;
+                }
+                jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + table.name() + " INCLUDING DEFAULTS)");
+                // Attaching fails while the default partition holds rows of the new range, so move them first
+                int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + table.name() + "_default" +
+                        " WHERE send_at >= '" + lower + "' AND send_at < '" + upper + "' RETURNING *) " +
+                        "INSERT INTO " + name + " SELECT * FROM moved");
+                jdbcTemplate.execute("ALTER TABLE " + table.name() + " ATTACH PARTITION " + name +
+                        " FOR VALUES FROM ('" + lower + "') TO ('" + upper + "')");
+                log.info("🧱 [Partitions] Created {} for [{}, {}){}", name, from, to,
+                        moved > 0 ? " (" + moved + " rows moved from the default partition)" : "");
+            }
+        });
+    }
+
+    private void retireExpiredPartitions() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+                "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? AND pg_table_is_visible(p.oid)", STATE.name());
+
+        for (Map<String, Object> partition : partitions) {
+            String suffix = ((String) partition.get("name")).substring(STATE.name().length());
+            Matcher upper = UPPER_BOUND.matcher(String.valueOf(partition.get("bound")));
+            if (!upper.find() || LocalDateTime.parse(upper.group(1).replace(' ', 'T')).isAfter(cutoff)) {
+                continue; // default partition, or still within retention
+            }
+            transactionTemplate.executeWithoutResult(tx -> retire(suffix));
+        }
+    }
+
+    private void retire(String suffix) {
+        if (!tryLock()) {
+            return;
+        }
+        Boolean unfinished = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + STATE.name() + suffix +
+                " WHERE status IN ('PENDING', 'QUEUED', 'SENDING'))", Boolean.class);
+        if (Boolean.TRUE.equals(unfinished)) {
+            log.warn("⚠️  [Partitions] Keeping expired partitions {}: they still have unfinished jobs", suffix);
+            return;
+        }
+        for (PartitionedTable table : TABLES) {
+            String name = table.name() + suffix;
+            if (!exists(name)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table.name() + " DETACH PARTITION " + name);
+            if ("drop".equalsIgnoreCase(retentionAction)) {
+                jdbcTemplate.execute("DROP TABLE " + name);
+                log.info("🗑️  [Partitions] Dropped expired partition {}", name);
+            } else {
+                log.info("📦 [Partitions] Detached expired partition {}", name);
+            }
+        }
+    }
+
+    private boolean exists(String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    }
+
+    /**
+     * Transaction-scoped advisory lock; false when another instance is doing partition DDL right now.
+     */
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY));
+    }
+
+    private static LocalDate periodStart(LocalDate day, Interval period) {
+        return period == Interval.WEEKLY ? day.with(DayOfWeek.MONDAY) : day;
+    }
+
+    private static LocalDate next(LocalDate start, Interval period) {
+        return period == Interval.WEEKLY ? start.plusWeeks(1) : start.plusDays(1);
+    }
+}
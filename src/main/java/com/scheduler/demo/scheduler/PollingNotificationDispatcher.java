@@ -0,0 +1,53 @@
+package com.scheduler.demo.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatcher that polls PostgreSQL for due PENDING jobs.
+ *
+ * Flow (ClaimedJobRunner.claimDueAndRun):
+ * 1. Claim a batch of due jobs with one UPDATE ... RETURNING (FOR UPDATE SKIP LOCKED),
+ *    which sets them to SENDING with a lease owned by this instance
+ * 2. Hand each claimed job to the notificationExecutor
+ * 3. Keep claiming while full batches come back, so a backlog drains without waiting for the next poll
+ *
+ * Never claims more jobs than the executor has free slots for (see WorkerCapacity).
+ *
+ * Several instances can run against the same database - SKIP LOCKED gives each one different rows.
+ * Picks up jobs when SQS is disabled as well as jobs that fell back to PENDING when the SQS send failed.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.scheduler.dispatch-backend", havingValue = "polling", matchIfMissing = true)
+public class PollingNotificationDispatcher {
+
+    private final ClaimedJobRunner jobRunner;
+
+    @Value("${app.scheduler.polling.batch-size:50}")
+    private int batchSize;
+
+    public PollingNotificationDispatcher(ClaimedJobRunner jobRunner) {
+        this.jobRunner = jobRunner;
+    }
+
+    /**
+     * Poll for due jobs every second (configurable).
+     */
+    @Scheduled(fixedDelayString = "${app.scheduler.polling.interval-ms:1000}")
+    public void dispatchDueJobs() {
+        try {
+            int dispatched = jobRunner.claimDueAndRun(0, batchSize);
+            if (dispatched > 0) {
+                log.info("📨 [DB Dispatcher] Dispatched {} due jobs", dispatched);
+            } else {
+                log.debug("📊 [DB Dispatcher] No due jobs, or executor saturated");
+            }
+        } catch (Exception e) {
+            log.error("❌ [DB Dispatcher] Error polling for due jobs: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.scheduler.demo.scheduler;
+
+import com.scheduler.demo.dto.JobDueTime;
+import com.scheduler.demo.event.NotificationJobsCreatedEvent;
+import com.scheduler.demo.model.NotificationJob;
+import com.scheduler.demo.repository.NotificationJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatcher that keeps due times in a Redis sorted set, shared by all instances.
+ *
+ * Flow:
+ * 1. New PENDING jobs are added to the due set (member = job id, score = sendAt in epoch ms)
+ *    from NotificationJobsCreatedEvent; on startup the set is backfilled from PostgreSQL
+ * 2. The dispatch thread runs a Lua script that atomically takes up to N due ids out of the due set
+ *    and puts them into the processing set, scored with their lease expiry
+ * 3. The ids are claimed in PostgreSQL (UPDATE ... RETURNING) and run on the notificationExecutor;
+ *    a finished job is removed from the processing set
+ * 4. The reaper moves ids whose lease ran out (instance died) from the processing set back to the due set
+ *
+ * The claim script hands each id to exactly one instance, so PostgreSQL only sees claims for jobs
+ * that are actually due - no polling queries. The overdue sweep still covers jobs Redis lost.
+ *
+ * Only active when app.scheduler.dispatch-backend=redis
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.scheduler.dispatch-backend", havingValue = "redis")
+public class RedisDelayQueueDispatcher implements SmartLifecycle {
+
+    /**
+     * KEYS[1] = due set, KEYS[2] = processing set; ARGV[1] = now (ms), ARGV[2] = lease expiry (ms), ARGV[3] = limit
+     */
+    private static final RedisScript<List<Object>> CLAIM_SCRIPT = listScript("""
+            local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[3]))
+            for _, id in ipairs(ids) do
+                redis.call('ZREM', KEYS[1], id)
+                redis.call('ZADD', KEYS[2], ARGV[2], id)
+            end
+            return ids
+            """);
+
+    /**
+     * KEYS[1] = due set, KEYS[2] = processing set; ARGV[1] = now (ms), ARGV[2] = limit
+     */
+    private static final RedisScript<Long> REQUEUE_SCRIPT = new DefaultRedisScript<>("""
+            local ids = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+            for _, id in ipairs(ids) do
+                redis.call('ZREM', KEYS[2], id)
+                redis.call('ZADD', KEYS[1], ARGV[1], id)
+            end
+            return #ids
+            """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final NotificationJobRepository jobRepository;
+    private final ClaimedJobRunner jobRunner;
+    private final WorkerCapacity workerCapacity;
+
+    @Value("${app.scheduler.redis.due-key:notifications:due}")
+    private String dueKey;
+
+    @Value("${app.scheduler.redis.processing-key:notifications:processing}")
+    private String processingKey;
+
+    @Value("${app.scheduler.redis.claim-batch-size:100}")
+    private int claimBatchSize;
+
+    @Value("${app.scheduler.redis.poll-interval-ms:100}")
+    private long pollIntervalMs;
+
+    @Value("${app.scheduler.redis.reaper-batch-size:1000}")
+    private int reaperBatchSize;
+
+    @Value("${app.scheduler.redis.backfill-on-start:true}")
+    private boolean backfillOnStart;
+
+    @Value("${app.scheduler.redis.backfill-page-size:10000}")
+    private int backfillPageSize;
+
+    @Value("${app.scheduler.redis.sweep-grace-ms:5000}")
+    private long sweepGraceMs;
+
+    @Value("${app.scheduler.redis.error-backoff-ms:1000}")
+    private long errorBackoffMs;
+
+    @Value("${app.scheduler.lease-seconds:300}")
+    private int leaseSeconds;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public RedisDelayQueueDispatcher(RedisTemplate<String, Object> redisTemplate,
+                                     NotificationJobRepository jobRepository,
+                                     ClaimedJobRunner jobRunner,
+                                     WorkerCapacity workerCapacity) {
+        this.redisTemplate = redisTemplate;
+        this.jobRepository = jobRepository;
+        this.jobRunner = jobRunner;
+        this.workerCapacity = workerCapacity;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        dispatcher = Thread.ofVirtual().name("redis-dispatch").start(() -> {
+            if (backfillOnStart) {
+                backfill();
+            }
+            dispatchLoop();
+        });
+        log.info("✅ [Redis Dispatcher] Started (due set {}, processing set {})", dueKey, processingKey);
+    }
+
+    @Override
+    public void stop() {
+        // Jobs already taken from the due set come back through the reaper once their lease expires
+        running = false;
+        dispatcher.interrupt();
+        log.info("[Redis Dispatcher] Stopping");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @EventListener
+    public void onJobsCreated(NotificationJobsCreatedEvent event) {
+        try {
+            add(event.jobs());
+        } catch (Exception e) {
+            // The jobs are committed; the overdue sweep dispatches them, only later than planned
+            log.error("❌ [Redis Dispatcher] Failed to add {} jobs to {}: {}", event.jobs().size(), dueKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Move ids whose lease expired back to the due set.
+     */
+    @Scheduled(fixedDelayString = "${app.scheduler.redis.reaper-interval-ms:10000}")
+    public void requeueExpired() {
+        try {
+            long total = 0;
+            Long moved;
+            do {
+                moved = redisTemplate.execute(REQUEUE_SCRIPT, List.of(dueKey, processingKey),
+                        String.valueOf(System.currentTimeMillis()), String.valueOf(reaperBatchSize));
+                total += moved == null ? 0 : moved;
+            } while (moved != null && moved == reaperBatchSize);
+
+            if (total > 0) {
+                log.warn("♻️  [Redis Dispatcher] Re-queued {} jobs with expired leases", total);
+            }
+        } catch (Exception e) {
+            log.error("❌ [Redis Dispatcher] Failed to re-queue expired leases: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Safety net for PENDING jobs that are overdue but missing from Redis.
+     */
+    @Scheduled(fixedDelayString = "${app.scheduler.redis.sweep-interval-ms:5000}")
+    public void sweepOverdue() {
+        try {
+            int claimed = jobRunner.claimDueAndRun(sweepGraceMs, claimBatchSize);
+            if (claimed > 0) {
+                log.warn("⏰ [Redis Dispatcher] Sweep claimed {} overdue jobs", claimed);
+            }
+        } catch (Exception e) {
+            log.error("❌ [Redis Dispatcher] Error sweeping overdue jobs: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Add all future PENDING jobs to the due set. ZADD is idempotent, so every instance may do this.
+     */
+    private void backfill() {
+        try {
+            int added = 0;
+            LocalDateTime afterSendAt = LocalDateTime.now();
+            long afterId = Long.MAX_VALUE;
+            LocalDateTime to = afterSendAt.plusYears(100);
+            List<JobDueTime> page;
+            do {
+                page = jobRepository.findPendingDueTimes(afterSendAt, afterId, to, Limit.of(backfillPageSize));
+                add(page);
+                added += page.size();
+                if (!page.isEmpty()) {
+                    JobDueTime last = page.get(page.size() - 1);
+                    afterSendAt = last.sendAt();
+                    afterId = last.id();
+                }
+            } while (running && page.size() == backfillPageSize);
+            log.info("📥 [Redis Dispatcher] Backfilled {} PENDING jobs into {}", added, dueKey);
+        } catch (Exception e) {
+            log.error("❌ [Redis Dispatcher] Backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void add(List<JobDueTime> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        Set<ZSetOperations.TypedTuple<Object>> tuples = new HashSet<>(jobs.size() * 2);
+        for (JobDueTime job : jobs) {
+            double score = job.sendAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            tuples.add(new DefaultTypedTuple<>(String.valueOf(job.id()), score));
+        }
+        redisTemplate.opsForZSet().add(dueKey, tuples);
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                // Only take as many ids as there are free worker slots
+                int slots = workerCapacity.acquireUpTo(claimBatchSize, 500, TimeUnit.MILLISECONDS);
+                if (slots == 0) {
+                    continue;
+                }
+                List<Long> ids;
+                try {
+                    ids = claimDue(slots);
+                } catch (RuntimeException e) {
+                    workerCapacity.release(slots);
+                    throw e;
+                }
+                workerCapacity.release(slots - ids.size());
+                if (ids.isEmpty()) {
+                    Thread.sleep(pollIntervalMs);
+                    continue;
+                }
+                dispatch(ids);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Ids already moved to the processing set come back through the reaper
+                log.error("❌ [Redis Dispatcher] Error dispatching due jobs: {}", e.getMessage(), e);
+                sleepQuietly(errorBackoffMs);
+            }
+        }
+    }
+
+    private List<Long> claimDue(int limit) {
+        long now = System.currentTimeMillis();
+        List<Object> claimed = redisTemplate.execute(CLAIM_SCRIPT, List.of(dueKey, processingKey),
+                String.valueOf(now), String.valueOf(now + leaseSeconds * 1000L), String.valueOf(limit));
+        if (claimed == null) {
+            return List.of();
+        }
+        return claimed.stream().map(id -> Long.valueOf(id.toString())).toList();
+    }
+
+    /**
+     * DefaultRedisScript takes the result as a Class, and there is no List<Object>.class.
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisScript<List<Object>> listScript(String script) {
+        return new DefaultRedisScript<>(script, (Class<List<Object>>) (Class<?>) List.class);
+    }
+
+    private void dispatch(List<Long> ids) {
+        List<NotificationJob> jobs = jobRunner.claimAndRun(ids, job -> finish(job.getId()));
+        log.info("📨 [Redis Dispatcher] Took {} due jobs ({} claimed)", ids.size(), jobs.size());
+
+        if (jobs.size() < ids.size()) {
+            // Not PENDING any more (cancelled, or dispatched by the sweep) - nothing left to do for them
+            Set<Long> claimedIds = new HashSet<>();
+            jobs.forEach(job -> claimedIds.add(job.getId()));
+            Object[] stale = ids.stream().filter(id -> !claimedIds.contains(id)).map(String::valueOf).toArray();
+            redisTemplate.opsForZSet().remove(processingKey, stale);
+        }
+    }
+
+    private void finish(Long jobId) {
+        try {
+            redisTemplate.opsForZSet().remove(processingKey, String.valueOf(jobId));
+        } catch (Exception e) {
+            // Harmless: the reaper moves it back and the next claim in PostgreSQL finds it no longer PENDING
+            log.warn("⚠️  [Redis Dispatcher] Could not remove job {} from {}: {}", jobId, processingKey, e.getMessage());
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
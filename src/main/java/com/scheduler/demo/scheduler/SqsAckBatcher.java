@@ -0,0 +1,164 @@
+package com.scheduler.demo.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects SQS acknowledgements (message deletes) and sends them as DeleteMessageBatch calls.
+ *
+ * A batch is sent as soon as 10 acknowledgements are waiting, otherwise on a short timer.
+ * Calls are asynchronous, so worker threads never wait for an SQS round trip.
+ * Entries that fail are retried on the next flush, up to max-attempts.
+ *
+ * Only active when aws.sqs.enabled=true
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "aws.sqs.enabled", havingValue = "true")
+public class SqsAckBatcher {
+
+    /** SQS accepts at most 10 entries per DeleteMessageBatch call. */
+    private static final int MAX_BATCH_ENTRIES = 10;
+
+    private record PendingAck(String queueUrl, String receiptHandle, int attempts) {}
+
+    private final SqsAsyncClient sqsAsyncClient;
+    private final ConcurrentLinkedQueue<PendingAck> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger inFlightCalls = new AtomicInteger();
+
+    @Value("${app.scheduler.sqs-ack.max-attempts:3}")
+    private int maxAttempts;
+
+    public SqsAckBatcher(SqsAsyncClient sqsAsyncClient) {
+        this.sqsAsyncClient = sqsAsyncClient;
+    }
+
+    /**
+     * Queue a processed message for deletion. Returns immediately.
+     */
+    public void acknowledge(String queueUrl, String receiptHandle) {
+        enqueue(new PendingAck(queueUrl, receiptHandle, 0));
+        if (pendingCount.get() >= MAX_BATCH_ENTRIES) {
+            flush(true);
+        }
+    }
+
+    /**
+     * Timer flush - sends whatever is waiting, including partial batches.
+     */
+    @Scheduled(fixedDelayString = "${app.scheduler.sqs-ack.flush-interval-ms:200}")
+    public void flushPending() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flush(false);
+        // Give outstanding calls a moment to complete so processed messages are not redelivered
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlightCalls.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        if (pendingCount.get() > 0 || inFlightCalls.get() > 0) {
+            log.warn("⚠️  [SQS Ack] Shutting down with {} unacknowledged messages; they will be redelivered",
+                    pendingCount.get());
+        }
+    }
+
+    private void enqueue(PendingAck ack) {
+        pending.add(ack);
+        pendingCount.incrementAndGet();
+    }
+
+    /**
+     * Drain pending acknowledgements into DeleteMessageBatch calls.
+     *
+     * @param fullBatchesOnly leave a trailing partial batch for the timer
+     */
+    private void flush(boolean fullBatchesOnly) {
+        while (true) {
+            if (fullBatchesOnly && pendingCount.get() < MAX_BATCH_ENTRIES) {
+                return;
+            }
+            List<PendingAck> batch = new ArrayList<>(MAX_BATCH_ENTRIES);
+            PendingAck ack;
+            while (batch.size() < MAX_BATCH_ENTRIES && (ack = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                batch.add(ack);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            send(batch);
+        }
+    }
+
+    private void send(List<PendingAck> batch) {
+        // Normally a single queue, but keep entries of different queues apart
+        Map<String, List<PendingAck>> byQueue = new HashMap<>();
+        batch.forEach(ack -> byQueue.computeIfAbsent(ack.queueUrl(), q -> new ArrayList<>()).add(ack));
+
+        byQueue.forEach((queueUrl, acks) -> {
+            List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(acks.size());
+            for (int i = 0; i < acks.size(); i++) {
+                entries.add(DeleteMessageBatchRequestEntry.builder()
+                        .id(String.valueOf(i)) // index into acks, maps failures back
+                        .receiptHandle(acks.get(i).receiptHandle())
+                        .build());
+            }
+
+            inFlightCalls.incrementAndGet();
+            CompletableFuture<?> call;
+            try {
+                call = sqsAsyncClient.deleteMessageBatch(DeleteMessageBatchRequest.builder()
+                        .queueUrl(queueUrl)
+                        .entries(entries)
+                        .build())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            log.error("❌ [SQS Ack] DeleteMessageBatch failed for {} messages: {}", acks.size(), error.getMessage());
+                            acks.forEach(this::retry);
+                            return;
+                        }
+                        log.debug("🗑️  [SQS Ack] Deleted {} messages from queue", response.successful().size());
+                        for (BatchResultErrorEntry failed : response.failed()) {
+                            log.warn("⚠️  [SQS Ack] Failed to delete message: {} {}", failed.code(), failed.message());
+                            retry(acks.get(Integer.parseInt(failed.id())));
+                        }
+                    });
+            } catch (RuntimeException e) {
+                log.error("❌ [SQS Ack] Could not issue DeleteMessageBatch: {}", e.getMessage());
+                acks.forEach(this::retry);
+                inFlightCalls.decrementAndGet();
+                return;
+            }
+            call.whenComplete((r, e) -> inFlightCalls.decrementAndGet());
+        });
+    }
+
+    private void retry(PendingAck ack) {
+        if (ack.attempts() + 1 >= maxAttempts) {
+            log.error("❌ [SQS Ack] Giving up deleting message after {} attempts; it will be redelivered", maxAttempts);
+            return;
+        }
+        enqueue(new PendingAck(ack.queueUrl(), ack.receiptHandle(), ack.attempts() + 1));
+    }
+}
@@ -9,11 +9,10 @@ import io.awspring.cloud.sqs.operations.SqsTemplate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.messaging.Message;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.services.sqs.SqsAsyncClient;
-import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
 
@@ -21,23 +20,40 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Scheduler that polls AWS SQS queue for notification messages.
- * 
+ * Consumer that long-polls the AWS SQS queue for notification messages.
+ *
  * Flow:
- * 1. POST request → NotificationService saves to DB + pushes to SQS
- * 2. This scheduler polls SQS queue every 10 seconds
- * 3. Processes messages and sends notifications
- * 
+ * 1. POST request → NotificationService saves to DB + outbox, OutboxRelay pushes to SQS
+ * 2. Receiver threads long-poll the queue back to back (no sleep between receives)
+ * 3. Processes messages and sends notifications; a message that arrives before its send time
+ *    is made invisible again until then (ChangeMessageVisibility) instead of being sent early
+ *
+ * Receivers scale with load: a receive that comes back full starts another receiver (up to max),
+ * and a receiver that keeps coming back empty retires (down to min).
+ * Each receive only asks for as many messages as there are free executor slots (see WorkerCapacity);
+ * while the executor is saturated no receive is issued at all, so messages are never
+ * received only to be rejected and redelivered later.
+ *
+ * On shutdown the lifecycle waits (up to one long poll) for the receivers to exit, so messages they are
+ * still receiving are handed to the notificationExecutor before it shuts down.
+ *
  * Only active when aws.sqs.enabled=true
  */
 @Component
 @Slf4j
 @ConditionalOnProperty(name = "aws.sqs.enabled", havingValue = "true")
-public class SqsNotificationScheduler {
+public class SqsNotificationScheduler implements SmartLifecycle {
+
+    /** SQS allows a visibility timeout of at most 12 hours. */
+    private static final int MAX_VISIBILITY_TIMEOUT_SECONDS = 12 * 60 * 60;
 
     private final NotificationJobRepository jobRepository;
     private final NotificationService notificationService;
@@ -45,36 +61,98 @@ public class SqsNotificationScheduler {
     private final SqsTemplate sqsTemplate;
     private final SqsAsyncClient sqsAsyncClient;
     private final ObjectMapper objectMapper;
+    private final WorkerCapacity workerCapacity;
+    private final SqsAckBatcher ackBatcher;
+    private final SqsVisibilityExtender visibilityExtender;
 
     @Value("${aws.sqs.queue.notification:notification-queue}")
     private String queueName;
 
-    @Value("${app.scheduler.sqs-poll-interval-seconds:10}")
-    private int pollIntervalSeconds;
-
     @Value("${app.scheduler.sqs-max-messages:10}")
     private int maxMessages;
 
-    private String queueUrl;
+    @Value("${app.scheduler.sqs-wait-seconds:20}")
+    private int waitTimeSeconds;
+
+    @Value("${app.scheduler.sqs-receivers.min:1}")
+    private int minReceivers;
+
+    @Value("${app.scheduler.sqs-receivers.max:4}")
+    private int maxReceivers;
+
+    @Value("${app.scheduler.sqs-receivers.idle-receives-before-retire:3}")
+    private int idleReceivesBeforeRetire;
+
+    @Value("${app.scheduler.sqs-error-backoff-ms:1000}")
+    private long errorBackoffMs;
+
+    private volatile String queueUrl;
+    private volatile boolean running;
+    private final AtomicInteger activeReceivers = new AtomicInteger();
+    private final AtomicInteger receiverSequence = new AtomicInteger();
+    private final Set<Thread> receivers = ConcurrentHashMap.newKeySet();
 
     public SqsNotificationScheduler(NotificationJobRepository jobRepository,
                                     NotificationService notificationService,
                                     Executor notificationExecutor,
                                     SqsTemplate sqsTemplate,
                                     SqsAsyncClient sqsAsyncClient,
-                                    ObjectMapper objectMapper) {
+                                    ObjectMapper objectMapper,
+                                    WorkerCapacity workerCapacity,
+                                    SqsAckBatcher ackBatcher,
+                                    SqsVisibilityExtender visibilityExtender) {
         this.jobRepository = jobRepository;
         this.notificationService = notificationService;
         this.notificationExecutor = notificationExecutor;
         this.sqsTemplate = sqsTemplate;
         this.sqsAsyncClient = sqsAsyncClient;
         this.objectMapper = objectMapper;
+        this.workerCapacity = workerCapacity;
+        this.ackBatcher = ackBatcher;
+        this.visibilityExtender = visibilityExtender;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < minReceivers; i++) {
+            activeReceivers.incrementAndGet();
+            startReceiver();
+        }
+        log.info("✅ [SQS Scheduler] Started {} receivers (max {}) for queue {}", minReceivers, maxReceivers, queueName);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        awaitReceivers();
+    }
+
+    /**
+     * Receivers finish their current long poll and exit; the context continues shutting down
+     * (notificationExecutor included) once they are gone.
+     */
+    @Override
+    public void stop(Runnable callback) {
+        running = false;
+        Thread.ofVirtual().name("sqs-receivers-shutdown").start(() -> {
+            try {
+                awaitReceivers();
+            } finally {
+                callback.run();
+            }
+        });
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
     }
 
     /**
      * Initialize queue URL on first poll
      */
-    private void initializeQueueUrl() {
+    private synchronized void initializeQueueUrl() {
         if (queueUrl == null) {
             try {
                 queueUrl = sqsAsyncClient.getQueueUrl(req -> req.queueName(queueName))
@@ -88,90 +166,243 @@ public class SqsNotificationScheduler {
         }
     }
 
+    private void startReceiver() {
+        Thread receiver = Thread.ofVirtual()
+                .name("sqs-receiver-" + receiverSequence.incrementAndGet())
+                .unstarted(() -> {
+                    try {
+                        receiveLoop();
+                    } finally {
+                        receivers.remove(Thread.currentThread());
+                    }
+                });
+        receivers.add(receiver);
+        receiver.start();
+    }
+
     /**
-     * Poll SQS queue for messages every 10 seconds (configurable).
+     * Wait for all receivers to exit, at most one long poll plus a margin.
      */
-    @Scheduled(fixedDelayString = "${app.scheduler.sqs-poll-interval-seconds:10}000")
-    public void pollSqsQueue() {
-        try {
-            initializeQueueUrl();
-
-            log.debug("📊 [SQS Scheduler] Polling queue: {} (URL: {})", queueName, queueUrl);
-
-            // Build receive request with proper configuration
-            ReceiveMessageRequest receiveRequest = ReceiveMessageRequest.builder()
-                .queueUrl(queueUrl)
-                .maxNumberOfMessages(maxMessages)
-                .waitTimeSeconds(10)  // Long polling - wait up to 10 seconds for messages
-                .visibilityTimeout(30)  // Messages invisible for 30 seconds while processing
-                .build();
+    private void awaitReceivers() {
+        log.info("[SQS Scheduler] Stopping {} receivers", receivers.size());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(waitTimeSeconds + 5L);
+        for (Thread receiver : receivers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            try {
+                receiver.join(Duration.ofNanos(remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!receivers.isEmpty()) {
+            log.warn("⚠️  [SQS Scheduler] {} receivers still running at shutdown", receivers.size());
+        }
+    }
 
-            // Receive messages using AWS SDK directly
-            ReceiveMessageResponse response = sqsAsyncClient.receiveMessage(receiveRequest).join();
+    /**
+     * Receive loop of a single receiver. Runs until the scheduler stops or the receiver retires.
+     */
+    private void receiveLoop() {
+        log.debug("[SQS Scheduler] Receiver {} started", Thread.currentThread().getName());
+        int emptyReceives = 0;
+        while (running) {
+            int received;
+            try {
+                received = pollSqsQueue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("❌ [SQS Scheduler] Error polling SQS: {}", e.getMessage(), e);
+                sleepQuietly(errorBackoffMs);
+                continue;
+            }
 
-            log.info("📊 [SQS Scheduler] Poll result - Messages received: {}, HasMessages: {}",
-                response.messages().size(),
-                response.hasMessages());
+            if (received >= maxMessages) {
+                emptyReceives = 0;
+                scaleUp();
+            } else if (received == 0) {
+                emptyReceives++;
+                if (emptyReceives >= idleReceivesBeforeRetire && tryRetire()) {
+                    log.debug("[SQS Scheduler] Receiver {} retired", Thread.currentThread().getName());
+                    return;
+                }
+            } else {
+                emptyReceives = 0;
+            }
+        }
+        activeReceivers.decrementAndGet();
+    }
 
-            if (!response.hasMessages() || response.messages().isEmpty()) {
-                log.debug("📊 [SQS Scheduler] No messages available in queue");
+    /**
+     * Start one more receiver if the max has not been reached.
+     */
+    private void scaleUp() {
+        int current;
+        do {
+            current = activeReceivers.get();
+            if (current >= maxReceivers) {
                 return;
             }
+        } while (!activeReceivers.compareAndSet(current, current + 1));
+        startReceiver();
+        log.info("📈 [SQS Scheduler] Queue is busy, scaled up to {} receivers", current + 1);
+    }
+
+    /**
+     * Let an idle receiver exit, as long as more than the min would keep running.
+     */
+    private boolean tryRetire() {
+        int current;
+        do {
+            current = activeReceivers.get();
+            if (current <= minReceivers) {
+                return false;
+            }
+        } while (!activeReceivers.compareAndSet(current, current - 1));
+        log.info("📉 [SQS Scheduler] Queue is idle, scaled down to {} receivers", current - 1);
+        return true;
+    }
 
-            log.info("📨 [SQS Scheduler] Received {} messages from queue", response.messages().size());
+    /**
+     * One long poll: receive up to as many messages as there are free worker slots (max maxMessages)
+     * and hand them to the notificationExecutor.
+     *
+     * @return number of messages received (0 as well when the executor stayed saturated)
+     */
+    private int pollSqsQueue() throws InterruptedException {
+        initializeQueueUrl();
+
+        // Wait for free worker slots before asking SQS for anything
+        int slots = workerCapacity.acquireUpTo(maxMessages, 1, TimeUnit.SECONDS);
+        if (slots == 0) {
+            log.debug("📊 [SQS Scheduler] Executor saturated, not polling");
+            return 0;
+        }
 
-            // Process each raw message
-            response.messages().forEach(sqsMessage -> {
-                try {
-                    log.info("📨 [SQS Scheduler] Raw message body: {}", sqsMessage.body());
+        log.debug("📊 [SQS Scheduler] Polling queue: {} (URL: {}) for up to {} messages", queueName, queueUrl, slots);
 
-                    // Parse the message body to NotificationMessage
-                    NotificationMessage notification = objectMapper.readValue(
-                        sqsMessage.body(),
-                        NotificationMessage.class
-                    );
+        // Build receive request with proper configuration
+        ReceiveMessageRequest receiveRequest = ReceiveMessageRequest.builder()
+            .queueUrl(queueUrl)
+            .maxNumberOfMessages(slots)
+            .waitTimeSeconds(waitTimeSeconds)  // Long polling - wait for messages instead of sleeping between polls
+            .visibilityTimeout(visibilityExtender.getVisibilityTimeoutSeconds())  // Extended by the heartbeat while processing
+            .build();
 
-                    log.info("✅ [SQS Scheduler] Parsed message - jobId: {}", notification.getJobId());
+        // Receive messages using AWS SDK directly
+        ReceiveMessageResponse response;
+        try {
+            response = sqsAsyncClient.receiveMessage(receiveRequest).join();
+        } catch (RuntimeException e) {
+            workerCapacity.release(slots);
+            throw e;
+        }
 
-                    // Process the notification
-                    CompletableFuture.runAsync(() -> {
-                        try {
-                            processNotification(notification);
+        // Give back the slots we did not get messages for
+        workerCapacity.release(slots - response.messages().size());
 
-                            // Delete message from queue after successful processing
-                            deleteMessage(sqsMessage.receiptHandle());
+        if (!response.hasMessages() || response.messages().isEmpty()) {
+            log.debug("📊 [SQS Scheduler] No messages available in queue");
+            return 0;
+        }
 
-                        } catch (Exception e) {
-                            log.error("❌ [SQS Scheduler] Failed to process notification: {}", e.getMessage(), e);
-                        }
-                    }, notificationExecutor);
+        log.info("📨 [SQS Scheduler] Received {} messages from queue", response.messages().size());
 
-                } catch (Exception e) {
-                    log.error("❌ [SQS Scheduler] Failed to parse message: {}", e.getMessage(), e);
-                    log.error("❌ [SQS Scheduler] Message body was: {}", sqsMessage.body());
+        // Process each raw message
+        response.messages().forEach(sqsMessage -> {
+            try {
+                log.debug("📨 [SQS Scheduler] Raw message body: {}", sqsMessage.body());
+
+                // Parse the message body to NotificationMessage
+                NotificationMessage notification = objectMapper.readValue(
+                    sqsMessage.body(),
+                    NotificationMessage.class
+                );
+
+                log.info("✅ [SQS Scheduler] Parsed message - jobId: {}", notification.getJobId());
+
+                // Arrived before its send time (SQS delay is capped at 15 minutes) - hide it again instead of sending
+                int secondsEarly = secondsUntilDue(notification);
+                if (secondsEarly > 0) {
+                    redelay(sqsMessage.receiptHandle(), notification.getJobId(), secondsEarly);
+                    workerCapacity.release(1);
+                    return;
                 }
-            });
 
-        } catch (Exception e) {
-            log.error("❌ [SQS Scheduler] Error polling SQS: {}", e.getMessage(), e);
-        }
+                // Keep the message invisible until its job finishes, even if it waits in the executor queue
+                visibilityExtender.track(queueUrl, sqsMessage.receiptHandle());
+
+                // Process the notification (slot is released when the task ends)
+                workerCapacity.execute(notificationExecutor, () -> {
+                    try {
+                        processNotification(notification);
+
+                        // Delete message from queue after successful processing (batched, non-blocking)
+                        visibilityExtender.untrack(sqsMessage.receiptHandle());
+                        ackBatcher.acknowledge(queueUrl, sqsMessage.receiptHandle());
+
+                    } catch (Exception e) {
+                        visibilityExtender.untrack(sqsMessage.receiptHandle());
+                        log.error("❌ [SQS Scheduler] Failed to process notification: {}", e.getMessage(), e);
+                    }
+                });
+
+            } catch (RejectedExecutionException e) {
+                visibilityExtender.untrack(sqsMessage.receiptHandle());
+                log.error("❌ [SQS Scheduler] Executor rejected message {}, it will be redelivered", sqsMessage.messageId());
+            } catch (Exception e) {
+                workerCapacity.release(1);
+                log.error("❌ [SQS Scheduler] Failed to parse message: {}", e.getMessage(), e);
+                log.error("❌ [SQS Scheduler] Message body was: {}", sqsMessage.body());
+            }
+        });
+
+        return response.messages().size();
     }
 
     /**
-     * Delete a message from the queue after successful processing.
+     * Whole seconds until the job is due (0 when due now or within the next second),
+     * capped at the maximum SQS visibility timeout.
      */
-    private void deleteMessage(String receiptHandle) {
-        try {
-            DeleteMessageRequest deleteRequest = DeleteMessageRequest.builder()
-                .queueUrl(queueUrl)
-                .receiptHandle(receiptHandle)
-                .build();
+    private int secondsUntilDue(NotificationMessage notification) {
+        if (notification.getSendAt() == null) {
+            return 0;
+        }
+        long millis = Duration.between(LocalDateTime.now(), notification.getSendAt()).toMillis();
+        if (millis < 1000) {
+            return 0;
+        }
+        return (int) Math.min((millis + 999) / 1000, MAX_VISIBILITY_TIMEOUT_SECONDS);
+    }
 
-            sqsAsyncClient.deleteMessage(deleteRequest).join();
-            log.info("🗑️  [SQS Scheduler] Deleted message from queue");
+    /**
+     * Make an early message invisible until its send time. It is neither processed nor deleted,
+     * so it comes back when due. If the call fails, the message reappears after the receive
+     * visibility timeout and is re-delayed then.
+     */
+    private void redelay(String receiptHandle, Long jobId, int seconds) {
+        sqsAsyncClient.changeMessageVisibility(req -> req
+                        .queueUrl(queueUrl)
+                        .receiptHandle(receiptHandle)
+                        .visibilityTimeout(seconds))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.error("❌ [SQS Scheduler] Failed to re-delay job {}: {}", jobId, error.getMessage());
+                    }
+                });
+        log.info("⏳ [SQS Scheduler] Job {} arrived {}s early, re-delayed", jobId, seconds);
+    }
 
-        } catch (Exception e) {
-            log.error("❌ [SQS Scheduler] Failed to delete message: {}", e.getMessage());
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -179,6 +410,7 @@ public class SqsNotificationScheduler {
      * Process a notification message.
      */
     private void processNotification(NotificationMessage notification) {
+        NotificationJob job = null;
         try {
             log.info("🔄 [SQS Scheduler] Processing job ID={}", notification.getJobId());
 
@@ -190,7 +422,7 @@ public class SqsNotificationScheduler {
                 return;
             }
 
-            NotificationJob job = jobOpt.get();
+            job = jobOpt.get();
 
             // Check if job is still pending/queued
             if (!"PENDING".equals(job.getStatus()) && !"QUEUED".equals(job.getStatus())) {
@@ -209,7 +441,7 @@ public class SqsNotificationScheduler {
                 notification.getJobId(), e.getMessage(), e);
 
             // Mark job as failed
-            markJobAsFailed(notification.getJobId());
+            markJobAsFailed(notification.getJobId(), job == null ? 0 : job.getAttempts());
 
             // Re-throw to let caller handle
             throw new RuntimeException("Failed to process notification: " + e.getMessage(), e);
@@ -218,15 +450,12 @@ public class SqsNotificationScheduler {
 
     /**
      * Mark a job as failed in the database.
+     *
+     * @param attempt lease token of the failed attempt (set by processJob once the lease was taken)
      */
-    private void markJobAsFailed(Long jobId) {
+    private void markJobAsFailed(Long jobId, int attempt) {
         try {
-            Optional<NotificationJob> jobOpt = jobRepository.findById(jobId);
-            if (jobOpt.isPresent()) {
-                NotificationJob job = jobOpt.get();
-                job.setStatus("FAILED");
-                job.setUpdatedAt(LocalDateTime.now());
-                jobRepository.save(job);
+            if (notificationService.failJob(jobId, attempt)) {
                 log.info("Updated job {} status to FAILED", jobId);
             }
         } catch (Exception ex) {
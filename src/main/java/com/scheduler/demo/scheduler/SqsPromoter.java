@@ -0,0 +1,91 @@
+package com.scheduler.demo.scheduler;
+
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import com.scheduler.demo.model.NotificationOutbox;
+import com.scheduler.demo.repository.NotificationJobRepository;
+import com.scheduler.demo.repository.NotificationOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves far-future jobs from PostgreSQL into SQS once they enter the SQS delay window.
+ *
+ * SQS can delay a message by at most 15 minutes, so jobs due later are created as PENDING
+ * and stay in the database. This promoter switches PENDING jobs due within window-seconds
+ * to QUEUED (earliest send_at first, SKIP LOCKED) and writes their outbox entries in the
+ * same transaction; the OutboxRelay then sends them with the remaining delay.
+ * The queue only ever holds work due within the window.
+ *
+ * Jobs due in less than min-lead-ms are never promoted: they are the DB dispatcher's. This includes jobs
+ * the OutboxRelay gave back to PENDING after failed sends - while SQS is down such a job may be promoted
+ * and given back again until it is due, but from then on it stays PENDING for the DB dispatcher.
+ *
+ * Only active when aws.sqs.enabled=true
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "aws.sqs.enabled", havingValue = "true")
+public class SqsPromoter {
+
+    private final NotificationJobRepository jobRepository;
+    private final NotificationOutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.scheduler.sqs-promoter.window-seconds:900}")
+    private long windowSeconds;
+
+    @Value("${app.scheduler.sqs-promoter.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.scheduler.sqs-promoter.min-lead-ms:1000}")
+    private long minLeadMs;
+
+    public SqsPromoter(NotificationJobRepository jobRepository,
+                       NotificationOutboxRepository outboxRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.sqs-promoter.interval-ms:10000}")
+    public void promote() {
+        try {
+            int total = 0;
+            Integer promoted;
+            do {
+                promoted = transactionTemplate.execute(tx -> promoteBatch());
+                total += promoted;
+            } while (promoted == batchSize);
+
+            if (total > 0) {
+                log.info("⏫ [SQS Promoter] Promoted {} jobs due within {}s to SQS", total, windowSeconds);
+            }
+        } catch (Exception e) {
+            log.error("❌ [SQS Promoter] Failed to promote jobs: {}", e.getMessage(), e);
+        }
+    }
+
+    private int promoteBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = jobRepository.promoteToQueued(now.plusNanos(minLeadMs * 1_000_000),
+                now.plusSeconds(windowSeconds), now, batchSize);
+        if (!ids.isEmpty()) {
+            outboxRepository.saveAll(ids.stream().map(id -> new NotificationOutbox(id, now)).toList());
+            eventPublisher.publishEvent(new JobStatusChangedEvent(ids, "PENDING", "QUEUED"));
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,155 @@
+package com.scheduler.demo.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Heartbeat that keeps in-flight SQS messages invisible until their job finishes.
+ *
+ * Sending can take minutes (rate-limit delay, waiting for an email permit, retries), far longer than
+ * the receive visibility timeout. Every message handed to a worker is tracked here; messages whose
+ * visibility is about to run out are extended with ChangeMessageVisibilityBatch (10 per call).
+ * Tracking stops when the job finishes, or after max-extension-seconds so a stuck worker
+ * cannot hold a message forever.
+ *
+ * Only active when aws.sqs.enabled=true
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "aws.sqs.enabled", havingValue = "true")
+public class SqsVisibilityExtender {
+
+    /** SQS accepts at most 10 entries per ChangeMessageVisibilityBatch call. */
+    private static final int MAX_BATCH_ENTRIES = 10;
+
+    private static final class InFlight {
+        final String queueUrl;
+        final String receiptHandle;
+        final Instant receivedAt;
+        volatile Instant visibleAt;
+
+        InFlight(String queueUrl, String receiptHandle, Instant receivedAt, Instant visibleAt) {
+            this.queueUrl = queueUrl;
+            this.receiptHandle = receiptHandle;
+            this.receivedAt = receivedAt;
+            this.visibleAt = visibleAt;
+        }
+    }
+
+    private final SqsAsyncClient sqsAsyncClient;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${app.scheduler.sqs-visibility.timeout-seconds:30}")
+    private int visibilityTimeoutSeconds;
+
+    @Value("${app.scheduler.sqs-visibility.heartbeat-interval-ms:10000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${app.scheduler.sqs-visibility.max-extension-seconds:3600}")
+    private long maxExtensionSeconds;
+
+    public SqsVisibilityExtender(SqsAsyncClient sqsAsyncClient) {
+        this.sqsAsyncClient = sqsAsyncClient;
+    }
+
+    /**
+     * Visibility timeout to request on receive; the heartbeat extends it by the same amount each time.
+     */
+    public int getVisibilityTimeoutSeconds() {
+        return visibilityTimeoutSeconds;
+    }
+
+    /**
+     * Start tracking a message that was just received.
+     */
+    public void track(String queueUrl, String receiptHandle) {
+        Instant now = Instant.now();
+        inFlight.put(receiptHandle, new InFlight(queueUrl, receiptHandle, now, now.plusSeconds(visibilityTimeoutSeconds)));
+    }
+
+    /**
+     * Stop tracking a message (its job finished, successfully or not).
+     */
+    public void untrack(String receiptHandle) {
+        inFlight.remove(receiptHandle);
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.sqs-visibility.heartbeat-interval-ms:10000}")
+    public void extendExpiring() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        // Anything that would become visible before the next heartbeat (plus a margin) is extended now
+        Instant horizon = now.plus(Duration.ofMillis(heartbeatIntervalMs * 2));
+        Instant giveUpBefore = now.minusSeconds(maxExtensionSeconds);
+
+        List<InFlight> expiring = new ArrayList<>();
+        for (InFlight message : inFlight.values()) {
+            if (message.receivedAt.isBefore(giveUpBefore)) {
+                log.warn("⚠️  [SQS Visibility] Message in flight for over {}s, no longer extending it", maxExtensionSeconds);
+                inFlight.remove(message.receiptHandle);
+            } else if (message.visibleAt.isBefore(horizon)) {
+                expiring.add(message);
+            }
+        }
+        if (expiring.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<InFlight>> byQueue = expiring.stream().collect(Collectors.groupingBy(m -> m.queueUrl));
+        byQueue.forEach((queueUrl, messages) -> {
+            for (int from = 0; from < messages.size(); from += MAX_BATCH_ENTRIES) {
+                extend(queueUrl, messages.subList(from, Math.min(from + MAX_BATCH_ENTRIES, messages.size())));
+            }
+        });
+        log.debug("⏱️  [SQS Visibility] Extended {} in-flight messages", expiring.size());
+    }
+
+    private void extend(String queueUrl, List<InFlight> batch) {
+        List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(ChangeMessageVisibilityBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .receiptHandle(batch.get(i).receiptHandle)
+                    .visibilityTimeout(visibilityTimeoutSeconds)
+                    .build());
+        }
+
+        Instant requestedAt = Instant.now();
+        sqsAsyncClient.changeMessageVisibilityBatch(ChangeMessageVisibilityBatchRequest.builder()
+                        .queueUrl(queueUrl)
+                        .entries(entries)
+                        .build())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        // Retried on the next heartbeat while the message is still tracked
+                        log.error("❌ [SQS Visibility] ChangeMessageVisibilityBatch failed for {} messages: {}",
+                                batch.size(), error.getMessage());
+                        return;
+                    }
+                    Instant newVisibleAt = requestedAt.plusSeconds(visibilityTimeoutSeconds);
+                    response.successful().forEach(ok -> batch.get(Integer.parseInt(ok.id())).visibleAt = newVisibleAt);
+                    for (BatchResultErrorEntry failed : response.failed()) {
+                        // Usually the message was already deleted - nothing to extend any more
+                        log.debug("[SQS Visibility] Could not extend message: {} {}", failed.code(), failed.message());
+                    }
+                });
+    }
+}
@@ -0,0 +1,131 @@
+package com.scheduler.demo.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel.
+ *
+ * Level 0 has wheelSize slots of tickMs each. Deadlines beyond its span go to an overflow level
+ * whose tick is the whole span of the level below (created on demand, so any horizon fits).
+ * When the clock reaches a slot of a higher level, its entries cascade down into lower levels.
+ * Insert is O(1); every entry expires after at most one cascade per level.
+ *
+ * Not thread-safe - callers must serialize add/advanceClock.
+ */
+public class TimingWheel<T> {
+
+    private record Entry<T>(long deadlineMs, T item) {}
+
+    private final Level<T> root;
+    private int size;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.root = new Level<>(tickMs, wheelSize, startMs);
+    }
+
+    /**
+     * Schedule an item.
+     *
+     * @return false if the deadline is already within the current tick - the caller should run it now
+     */
+    public boolean add(long deadlineMs, T item) {
+        if (!root.add(new Entry<>(deadlineMs, item))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Move the clock forward to nowMs, handing every item whose tick has been reached to onExpired.
+     */
+    public void advanceClock(long nowMs, Consumer<T> onExpired) {
+        while (root.currentTime + root.tickMs <= nowMs) {
+            long time = root.currentTime + root.tickMs;
+            // Move the clock of every level on a tick boundary first, so cascaded entries are
+            // placed relative to the new time and never back into a slot that is being drained
+            for (Level<T> level = root; level != null && time % level.tickMs == 0; level = level.overflow) {
+                level.currentTime = time;
+            }
+            cascade(root.overflow, time, onExpired);
+
+            ArrayDeque<Entry<T>> due = root.drain(time);
+            if (due != null) {
+                size -= due.size();
+                due.forEach(entry -> onExpired.accept(entry.item()));
+            }
+        }
+    }
+
+    private void cascade(Level<T> level, long time, Consumer<T> onExpired) {
+        if (level == null || time % level.tickMs != 0) {
+            return;
+        }
+        // Highest level first, so cascaded entries land in the slots processed right after
+        cascade(level.overflow, time, onExpired);
+
+        ArrayDeque<Entry<T>> entries = level.drain(time);
+        if (entries != null) {
+            for (Entry<T> entry : entries) {
+                // They now fit a lower level - or are due right now (deadline on the tick boundary)
+                if (!root.add(entry)) {
+                    size--;
+                    onExpired.accept(entry.item());
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long currentTimeMs() {
+        return root.currentTime;
+    }
+
+    private static final class Level<T> {
+        final long tickMs;
+        final int wheelSize;
+        final long interval;
+        final ArrayDeque<Entry<T>>[] slots;
+        long currentTime; // always a multiple of tickMs
+        Level<T> overflow;
+
+        @SuppressWarnings("unchecked")
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.slots = new ArrayDeque[wheelSize];
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        boolean add(Entry<T> entry) {
+            if (entry.deadlineMs() < currentTime + tickMs) {
+                return false;
+            }
+            if (entry.deadlineMs() < currentTime + interval) {
+                int index = (int) ((entry.deadlineMs() / tickMs) % wheelSize);
+                ArrayDeque<Entry<T>> slot = slots[index];
+                if (slot == null) {
+                    slot = slots[index] = new ArrayDeque<>();
+                }
+                slot.add(entry);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level<>(interval, wheelSize, currentTime);
+            }
+            return overflow.add(entry);
+        }
+
+        ArrayDeque<Entry<T>> drain(long time) {
+            int index = (int) ((time / tickMs) % wheelSize);
+            ArrayDeque<Entry<T>> slot = slots[index];
+            slots[index] = null;
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.scheduler.demo.scheduler;
+
+import com.scheduler.demo.dto.JobDueTime;
+import com.scheduler.demo.event.NotificationJobsCreatedEvent;
+import com.scheduler.demo.model.NotificationJob;
+import com.scheduler.demo.repository.NotificationJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatcher that fires PENDING jobs from an in-memory hierarchical timing wheel.
+ *
+ * Flow:
+ * 1. The loader reads due times (id, send_at) of PENDING jobs in a sliding window (default: next hour)
+ *    from PostgreSQL, using idx_status_sendat; each run only reads the part of the window not loaded yet
+ * 2. Jobs created while running are added from NotificationJobsCreatedEvent, no re-read needed
+ * 3. A ticker thread advances the wheel every tick (1 ms) and queues the jobs whose send_at was reached
+ * 4. The dispatch thread claims fired jobs by id (one UPDATE ... RETURNING per batch) and hands them
+ *    to the notificationExecutor, never more than there are free slots for (see WorkerCapacity)
+ *
+ * Every instance loads the whole window; the claim only succeeds on one of them.
+ * Jobs the wheel does not know about (due before startup, re-queued by the LeaseReaper, fired on an
+ * instance that died) are picked up by the overdue sweep once they are sweep-grace-ms late.
+ *
+ * Only active when app.scheduler.dispatch-backend=timing-wheel
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.scheduler.dispatch-backend", havingValue = "timing-wheel")
+public class TimingWheelDispatcher implements SmartLifecycle {
+
+    private final NotificationJobRepository jobRepository;
+    private final ClaimedJobRunner jobRunner;
+    private final WorkerCapacity workerCapacity;
+
+    private final TimingWheel<Long> wheel;
+    private final long tickMs;
+    private final BlockingQueue<Long> fired = new LinkedBlockingQueue<>();
+
+    @Value("${app.scheduler.timing-wheel.window-minutes:60}")
+    private long windowMinutes;
+
+    @Value("${app.scheduler.timing-wheel.load-page-size:10000}")
+    private int loadPageSize;
+
+    @Value("${app.scheduler.timing-wheel.claim-batch-size:100}")
+    private int claimBatchSize;
+
+    @Value("${app.scheduler.timing-wheel.sweep-grace-ms:5000}")
+    private long sweepGraceMs;
+
+    /** Everything due up to here has been read from the database. */
+    private volatile LocalDateTime loadedUntil = LocalDateTime.now();
+    /** Created-events for jobs up to here go into the wheel (may run ahead of loadedUntil while loading). */
+    private volatile LocalDateTime scheduleHorizon = loadedUntil;
+    private volatile boolean running;
+    private Thread ticker;
+    private Thread dispatcher;
+
+    public TimingWheelDispatcher(NotificationJobRepository jobRepository,
+                                 ClaimedJobRunner jobRunner,
+                                 WorkerCapacity workerCapacity,
+                                 @Value("${app.scheduler.timing-wheel.tick-ms:1}") long tickMs,
+                                 @Value("${app.scheduler.timing-wheel.wheel-size:512}") int wheelSize) {
+        this.jobRepository = jobRepository;
+        this.jobRunner = jobRunner;
+        this.workerCapacity = workerCapacity;
+        this.tickMs = tickMs;
+        this.wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        ticker = Thread.ofPlatform().name("timing-wheel-ticker").daemon().start(this::tickLoop);
+        dispatcher = Thread.ofVirtual().name("timing-wheel-dispatch").start(this::dispatchLoop);
+        log.info("✅ [Timing Wheel] Started (tick {} ms, window {} min)", tickMs, windowMinutes);
+    }
+
+    @Override
+    public void stop() {
+        // Jobs still in the wheel stay PENDING in the database; another instance (or the next start) loads them
+        running = false;
+        ticker.interrupt();
+        dispatcher.interrupt();
+        log.info("[Timing Wheel] Stopping with {} scheduled jobs", scheduledCount());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Extend the loaded window to now + window-minutes, reading only the part not loaded yet.
+     */
+    @Scheduled(fixedDelayString = "${app.scheduler.timing-wheel.load-interval-ms:60000}")
+    public void loadWindow() {
+        LocalDateTime from = loadedUntil;
+        LocalDateTime to = LocalDateTime.now().plusMinutes(windowMinutes);
+        // Jobs created from now on up to 'to' are added by the event listener; a job both
+        // loaded and added just fires twice, and the second claim finds it already taken
+        scheduleHorizon = to;
+
+        try {
+            int loaded = 0;
+            LocalDateTime afterSendAt = from;
+            long afterId = Long.MAX_VALUE; // first page: strictly after 'from'
+            List<JobDueTime> page;
+            do {
+                page = jobRepository.findPendingDueTimes(afterSendAt, afterId, to, Limit.of(loadPageSize));
+                page.forEach(this::schedule);
+                loaded += page.size();
+                if (!page.isEmpty()) {
+                    JobDueTime last = page.get(page.size() - 1);
+                    afterSendAt = last.sendAt();
+                    afterId = last.id();
+                }
+            } while (page.size() == loadPageSize);
+
+            loadedUntil = to;
+            if (loaded > 0) {
+                log.info("📥 [Timing Wheel] Loaded {} jobs due until {} ({} scheduled)", loaded, to, scheduledCount());
+            }
+        } catch (Exception e) {
+            // loadedUntil stays put, the next run reads the same range again
+            log.error("❌ [Timing Wheel] Failed to load due jobs: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener
+    public void onJobsCreated(NotificationJobsCreatedEvent event) {
+        LocalDateTime horizon = scheduleHorizon;
+        for (JobDueTime job : event.jobs()) {
+            if (!job.sendAt().isAfter(horizon)) {
+                schedule(job);
+            }
+        }
+    }
+
+    /**
+     * Safety net for PENDING jobs that are overdue but not in this wheel.
+     */
+    @Scheduled(fixedDelayString = "${app.scheduler.timing-wheel.sweep-interval-ms:5000}")
+    public void sweepOverdue() {
+        try {
+            int claimed = jobRunner.claimDueAndRun(sweepGraceMs, claimBatchSize);
+            if (claimed > 0) {
+                log.warn("⏰ [Timing Wheel] Sweep claimed {} overdue jobs", claimed);
+            }
+        } catch (Exception e) {
+            log.error("❌ [Timing Wheel] Error sweeping overdue jobs: {}", e.getMessage(), e);
+        }
+    }
+
+    private void schedule(JobDueTime job) {
+        long deadline = job.sendAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        boolean added;
+        synchronized (wheel) {
+            added = wheel.add(deadline, job.id());
+        }
+        if (!added) {
+            // Already due
+            fired.add(job.id());
+        }
+    }
+
+    private int scheduledCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void tickLoop() {
+        List<Long> expired = new ArrayList<>();
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        while (running) {
+            synchronized (wheel) {
+                wheel.advanceClock(System.currentTimeMillis(), expired::add);
+            }
+            if (!expired.isEmpty()) {
+                fired.addAll(expired);
+                expired.clear();
+            }
+            LockSupport.parkNanos(tickNanos);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Long first = fired.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Wait for worker capacity rather than claiming jobs nobody can run yet
+                int slots = 0;
+                while (running && slots == 0) {
+                    slots = workerCapacity.acquireUpTo(claimBatchSize, 500, TimeUnit.MILLISECONDS);
+                }
+                if (slots == 0) {
+                    return;
+                }
+                List<Long> ids = new ArrayList<>(slots);
+                ids.add(first);
+                fired.drainTo(ids, slots - 1);
+                if (ids.size() < slots) {
+                    workerCapacity.release(slots - ids.size());
+                }
+                claimAndSubmit(ids);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Jobs that were not claimed stay PENDING and are picked up by the sweep
+                log.error("❌ [Timing Wheel] Error dispatching fired jobs: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void claimAndSubmit(List<Long> ids) {
+        List<NotificationJob> jobs = jobRunner.claimAndRun(ids, job -> {});
+        if (!jobs.isEmpty()) {
+            log.info("📨 [Timing Wheel] Fired {} jobs ({} claimed)", ids.size(), jobs.size());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.scheduler.demo.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks free slots of the notificationExecutor (max pool size + queue capacity).
+ *
+ * Dispatchers reserve slots before fetching work and only fetch as many jobs as they hold slots for,
+ * so the executor never has to reject a task. Each slot is released when its task finishes.
+ */
+@Component
+public class WorkerCapacity {
+
+    private final int capacity;
+    private final Semaphore slots;
+
+    public WorkerCapacity(@Value("${app.threadpool.max:30}") int maxPool,
+                          @Value("${app.threadpool.queue-capacity:100}") int queueCapacity) {
+        this.capacity = maxPool + queueCapacity;
+        this.slots = new Semaphore(capacity);
+    }
+
+    /**
+     * Wait until at least one slot is free, then take as many as are free, up to max.
+     *
+     * @return number of slots taken, 0 if none became free within the timeout
+     */
+    public int acquireUpTo(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!slots.tryAcquire(timeout, unit)) {
+            return 0;
+        }
+        return 1 + tryAcquireUpTo(max - 1);
+    }
+
+    /**
+     * Take as many free slots as are available right now, up to max. Never blocks.
+     */
+    public int tryAcquireUpTo(int max) {
+        int taken = 0;
+        while (taken < max && slots.tryAcquire()) {
+            taken++;
+        }
+        return taken;
+    }
+
+    public void release(int count) {
+        if (count > 0) {
+            slots.release(count);
+        }
+    }
+
+    /**
+     * Run a task for which a slot is already held; the slot is released when the task ends.
+     * If the executor rejects the task anyway, the slot is released and the exception rethrown.
+     */
+    public void execute(Executor executor, Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    public int available() {
+        return slots.availablePermits();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
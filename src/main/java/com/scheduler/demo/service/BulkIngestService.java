@@ -0,0 +1,323 @@
+package com.scheduler.demo.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.demo.dto.BulkIngestResponse;
+import com.scheduler.demo.dto.CreateNotificationRequest;
+import com.scheduler.demo.dto.JobDueTime;
+import com.scheduler.demo.dto.JobKeys;
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import com.scheduler.demo.event.NotificationJobsCreatedEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk ingestion into notification_jobs / notification_job_state.
+ *
+ * Reads NDJSON (one CreateNotificationRequest per line) or CSV (header line + one job per line),
+ * validates each record and writes valid ones with PostgreSQL COPY FROM STDIN in bounded chunks,
+ * so memory use stays flat regardless of the request size.
+ *
+ * Rows are inserted as PENDING and dispatched like any other PENDING job.
+ */
+@Service
+@Slf4j
+public class BulkIngestService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String COPY_JOBS_SQL = "COPY notification_jobs " +
+            "(id, user_id, user_name, recipient_email, type, template_key, send_at, payload, created_at) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COPY_STATE_SQL = "COPY notification_job_state " +
+            "(job_id, send_at, status, updated_at, attempts) FROM STDIN WITH (FORMAT csv)";
+
+    // Must match the allocationSize of notification_jobs_seq on NotificationJob
+    private static final int ID_BLOCK_SIZE = 100;
+
+    private static final String SEQUENCE_SQL =
+            "SELECT nextval('notification_jobs_seq') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobKeysResolver jobKeysResolver;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.ingest.copy-chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.ingest.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public BulkIngestService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, Validator validator,
+                             ApplicationEventPublisher eventPublisher, JobKeysResolver jobKeysResolver,
+                             PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.jobKeysResolver = jobKeysResolver;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkIngestResponse ingest(InputStream body, Format format) throws IOException {
+        long started = System.currentTimeMillis();
+        IngestState state = new IngestState();
+        List<CreateNotificationRequest> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String[] csvHeader = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && csvHeader == null) {
+                    csvHeader = parseCsvLine(line).toArray(String[]::new);
+                    continue;
+                }
+
+                CreateNotificationRequest req;
+                try {
+                    req = format == Format.CSV ? fromCsv(csvHeader, line) : objectMapper.readValue(line, CreateNotificationRequest.class);
+                } catch (Exception e) {
+                    state.reject(lineNumber, "unreadable record (" + e.getMessage() + ")");
+                    continue;
+                }
+
+                Set<ConstraintViolation<CreateNotificationRequest>> violations = validator.validate(req);
+                if (!violations.isEmpty()) {
+                    state.reject(lineNumber, violations.stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+
+                chunk.add(req);
+                if (chunk.size() >= chunkSize) {
+                    copyChunk(chunk, state);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            copyChunk(chunk, state);
+        }
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("✅ [Bulk Ingest] {} accepted, {} rejected in {} ms", state.accepted, state.rejected, duration);
+
+        return BulkIngestResponse.builder()
+                .accepted(state.accepted)
+                .rejected(state.rejected)
+                .firstJobId(state.firstId)
+                .lastJobId(state.lastId)
+                .durationMs(duration)
+                .errors(state.errors)
+                .build();
+    }
+
+    /**
+     * Write one chunk with COPY. Ids are reserved from notification_jobs_seq in blocks,
+     * exactly like Hibernate's pooled-lo optimizer does, so both paths can insert concurrently.
+     */
+    private void copyChunk(List<CreateNotificationRequest> chunk, IngestState state) {
+        long[] ids = reserveIds(chunk.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        StringBuilder jobsCsv = new StringBuilder(chunk.size() * 256);
+        StringBuilder stateCsv = new StringBuilder(chunk.size() * 64);
+        List<JobDueTime> dueTimes = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateNotificationRequest req = chunk.get(i);
+            appendRow(jobsCsv, ids[i], req, now);
+            appendStateRow(stateCsv, ids[i], req, now);
+            dueTimes.add(new JobDueTime(ids[i], req.getSendAt()));
+        }
+
+        // Both tables in one transaction, so a job never exists without its state row
+        long copied = transactionTemplate.execute(tx -> jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                CopyManager copyApi = con.unwrap(PGConnection.class).getCopyAPI();
+                long rows = copyApi.copyIn(COPY_JOBS_SQL, new StringReader(jobsCsv.toString()));
+                copyApi.copyIn(COPY_STATE_SQL, new StringReader(stateCsv.toString()));
+                return rows;
+            } catch (IOException e) {
+                throw new IllegalStateException("COPY into notification_jobs failed", e);
+            }
+        }));
+
+        // Committed, so the rows are visible now
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateNotificationRequest req = chunk.get(i);
+            jobKeysResolver.remember(new JobKeys(ids[i], req.getUserId(), req.getType(), req.getTemplateKey()));
+        }
+        eventPublisher.publishEvent(new NotificationJobsCreatedEvent(dueTimes));
+        eventPublisher.publishEvent(new JobStatusChangedEvent(dueTimes.stream().map(JobDueTime::id).toList(), null, "PENDING"));
+
+        state.accepted += copied;
+        if (state.firstId == null) {
+            state.firstId = ids[0];
+        }
+        state.lastId = ids[ids.length - 1];
+        log.debug("[Bulk Ingest] Copied {} rows (ids {}..{})", copied, ids[0], ids[ids.length - 1]);
+    }
+
+    private long[] reserveIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> blockStarts = jdbcTemplate.queryForList(SEQUENCE_SQL, Long.class, blocks);
+
+        long[] ids = new long[count];
+        int i = 0;
+        for (Long start : blockStarts) {
+            for (int offset = 0; offset < ID_BLOCK_SIZE && i < count; offset++) {
+                ids[i++] = start + offset;
+            }
+        }
+        return ids;
+    }
+
+    private void appendRow(StringBuilder csv, long id, CreateNotificationRequest req, LocalDateTime now) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(req.getData());
+        } catch (Exception e) {
+            payload = "{}";
+        }
+        csv.append(id).append(',');
+        if (req.getUserId() != null) {
+            csv.append(req.getUserId());
+        }
+        csv.append(',');
+        appendCsvValue(csv, req.getUserName()).append(',');
+        appendCsvValue(csv, req.getRecipientEmail()).append(',');
+        appendCsvValue(csv, req.getType()).append(',');
+        appendCsvValue(csv, req.getTemplateKey()).append(',');
+        csv.append(req.getSendAt()).append(',');
+        appendCsvValue(csv, payload).append(',');
+        csv.append(now).append('\n');
+    }
+
+    private void appendStateRow(StringBuilder csv, long id, CreateNotificationRequest req, LocalDateTime now) {
+        csv.append(id).append(',')
+                .append(req.getSendAt()).append(',')
+                .append("PENDING").append(',')
+                .append(now).append(',')
+                .append('0').append('\n');
+    }
+
+    /**
+     * Always quote text values - in COPY csv format an unquoted empty value means NULL.
+     */
+    private StringBuilder appendCsvValue(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+
+    CreateNotificationRequest fromCsv(String[] header, String line) throws IOException {
+        List<String> values = parseCsvLine(line);
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.size(); i++) {
+            row.put(header[i].trim(), values.get(i));
+        }
+
+        CreateNotificationRequest req = new CreateNotificationRequest();
+        String userId = row.get("userId");
+        req.setUserId(userId == null || userId.isBlank() ? null : Long.valueOf(userId.trim()));
+        req.setType(row.get("type"));
+        req.setUserName(row.get("userName"));
+        req.setRecipientEmail(row.get("recipientEmail"));
+        req.setTemplateKey(row.get("templateKey"));
+        String sendAt = row.get("sendAt");
+        req.setSendAt(sendAt == null || sendAt.isBlank() ? null : LocalDateTime.parse(sendAt.trim()));
+        String data = row.get("data");
+        req.setData(data == null || data.isBlank() ? null : objectMapper.readValue(data, new TypeReference<Map<String, Object>>() {}));
+        return req;
+    }
+
+    /**
+     * Minimal RFC 4180 line parser: comma separated, double-quoted fields with "" escapes.
+     * Records spanning several lines are not supported.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private class IngestState {
+        long accepted;
+        long rejected;
+        Long firstId;
+        Long lastId;
+        final List<String> errors = new ArrayList<>();
+
+        void reject(long lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.scheduler.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into literal text and {{placeholder}} slots.
+ *
+ * Rendering is a single pass over the segments into a pre-sized StringBuilder, one map lookup per slot,
+ * instead of one String.replace over the whole text per payload key. Values are inserted as they are:
+ * a value that itself contains {{...}} is not expanded again.
+ *
+ * Placeholder names are taken literally (no trimming); "{{" without a closing "}}" and empty "{{}}"
+ * are plain text. Payload keys the template does not use are ignored; placeholders without a (non-null)
+ * value are handled by the MissingKeyPolicy.
+ */
+public final class CompiledTemplate {
+
+    public enum MissingKeyPolicy {
+        /** Leave {{name}} in the output, as the old replace-based rendering did */
+        KEEP,
+        /** Render nothing in place of the placeholder */
+        EMPTY,
+        /** Throw IllegalArgumentException, so the job fails instead of sending a broken text */
+        FAIL
+    }
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    /** Expected length of a rendered value, used to size the output buffer */
+    private static final int VALUE_LENGTH_HINT = 16;
+
+    private final String templateKey;
+    private final long version;
+    /** literals[i] precedes names[i]; the last literal follows the last placeholder */
+    private final String[] literals;
+    private final String[] names;
+    private final int sizeHint;
+
+    private CompiledTemplate(String templateKey, long version, String[] literals, String[] names) {
+        this.templateKey = templateKey;
+        this.version = version;
+        this.literals = literals;
+        this.names = names;
+        int literalLength = 0;
+        for (String literal : literals) {
+            literalLength += literal.length();
+        }
+        this.sizeHint = literalLength + names.length * VALUE_LENGTH_HINT;
+    }
+
+    public static CompiledTemplate compile(String templateKey, long version, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int pos = 0;
+        while (pos < source.length()) {
+            int open = source.indexOf(OPEN, pos);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            if (close == open + OPEN.length()) {
+                // "{{}}" is not a placeholder
+                literal.append(source, pos, close + CLOSE.length());
+            } else {
+                literal.append(source, pos, open);
+                literals.add(literal.toString());
+                literal.setLength(0);
+                names.add(source.substring(open + OPEN.length(), close));
+            }
+            pos = close + CLOSE.length();
+        }
+        literal.append(source, pos, source.length());
+        literals.add(literal.toString());
+        return new CompiledTemplate(templateKey, version, literals.toArray(String[]::new), names.toArray(String[]::new));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a placeholder has no value and the policy is FAIL
+     */
+    public String render(Map<String, ?> data, MissingKeyPolicy policy) {
+        StringBuilder out = new StringBuilder(sizeHint);
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            Object value = data == null ? null : data.get(names[i]);
+            if (value != null) {
+                out.append(value);
+                continue;
+            }
+            switch (policy) {
+                case KEEP -> out.append(OPEN).append(names[i]).append(CLOSE);
+                case EMPTY -> { }
+                case FAIL -> throw new IllegalArgumentException(
+                        "No value for {{" + names[i] + "}} in template " + templateKey);
+            }
+        }
+        return out.append(literals[names.length]).toString();
+    }
+
+    public String getTemplateKey() {
+        return templateKey;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<String> getPlaceholders() {
+        return List.of(names);
+    }
+}
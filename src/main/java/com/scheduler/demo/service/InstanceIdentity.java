@@ -0,0 +1,33 @@
+package com.scheduler.demo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+/**
+ * Identifies this application instance as the owner of job leases.
+ * Defaults to pid@hostname plus a random suffix so restarts never reuse an old owner id.
+ */
+@Component
+@Slf4j
+public class InstanceIdentity {
+
+    private final String id;
+
+    public InstanceIdentity(@Value("${app.scheduler.instance-id:}") String configuredId) {
+        if (configuredId != null && !configuredId.isBlank()) {
+            this.id = configuredId;
+        } else {
+            this.id = ManagementFactory.getRuntimeMXBean().getName() + "-" +
+                    UUID.randomUUID().toString().substring(0, 8);
+        }
+        log.info("Scheduler instance id: {}", id);
+    }
+
+    public String getId() {
+        return id;
+    }
+}
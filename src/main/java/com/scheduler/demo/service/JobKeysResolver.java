@@ -0,0 +1,70 @@
+package com.scheduler.demo.service;
+
+import com.scheduler.demo.dto.JobKeys;
+import com.scheduler.demo.model.NotificationJob;
+import com.scheduler.demo.repository.NotificationJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up user / type / template of jobs by id for status event consumers (SSE filters, statistics).
+ *
+ * These never change, so they are cached locally. Code that creates or claims jobs has them at hand
+ * and remembers them, so the transitions that follow usually need no query; misses are loaded with one
+ * IN query per event.
+ */
+@Component
+public class JobKeysResolver {
+
+    private final NotificationJobRepository jobRepository;
+    private final LocalCache<Long, JobKeys> cache;
+    private final Duration ttl;
+
+    public JobKeysResolver(NotificationJobRepository jobRepository,
+                           @Value("${app.cache.job-keys.local-max-size:100000}") int maxSize,
+                           @Value("${app.cache.job-keys.ttl-minutes:60}") long ttlMinutes) {
+        this.jobRepository = jobRepository;
+        this.cache = new LocalCache<>(maxSize);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    public void remember(JobKeys keys) {
+        cache.put(keys.id(), keys, ttl);
+    }
+
+    public void rememberAll(Collection<NotificationJob> jobs) {
+        for (NotificationJob job : jobs) {
+            remember(new JobKeys(job.getId(), job.getUserId(), job.getType(), job.getTemplateKey()));
+        }
+    }
+
+    /**
+     * @return keys of the given jobs; ids of jobs that do not exist are missing from the map
+     */
+    public Map<Long, JobKeys> resolve(Collection<Long> jobIds) {
+        Map<Long, JobKeys> keys = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : jobIds) {
+            JobKeys cached = cache.get(id);
+            if (cached != null) {
+                keys.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (JobKeys loaded : jobRepository.findJobKeys(missing)) {
+                remember(loaded);
+                keys.put(loaded.id(), loaded);
+            }
+        }
+        return keys;
+    }
+}
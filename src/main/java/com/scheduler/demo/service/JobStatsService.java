@@ -0,0 +1,222 @@
+package com.scheduler.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.demo.dto.JobKeys;
+import com.scheduler.demo.dto.JobStats;
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import com.scheduler.demo.repository.NotificationJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Job counts for dashboards, kept in memory so reads cost O(number of counters), not a table scan.
+ *
+ * - Counts per status, and the backlog (PENDING / QUEUED / SENDING) per type and per template, follow
+ *   every JobStatusChangedEvent of this instance (one LongAdder each); type / template come from the
+ *   JobKeysResolver, which creating and sending code fill, so most transitions need no query
+ * - Every reconcile-interval-ms one instance (whoever takes the Redis lock first) recounts from
+ *   PostgreSQL and publishes the result to Redis; all instances rebase their counters on it, which brings
+ *   in other instances' transitions and corrects drift (e.g. events missed during a recount)
+ * - The overdue count depends on the clock rather than on transitions, so it only changes on reconcile
+ *
+ * Without Redis every instance recounts for itself, as a single instance would.
+ */
+@Service
+@Slf4j
+public class JobStatsService {
+
+    private static final Set<String> BACKLOG = Set.of("PENDING", "QUEUED", "SENDING");
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final NotificationJobRepository jobRepository;
+    private final JobKeysResolver jobKeysResolver;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final InstanceIdentity instanceIdentity;
+
+    private final Map<String, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> backlogByType = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> backlogByTemplate = new ConcurrentHashMap<>();
+    private volatile long overdue;
+    private volatile LocalDateTime reconciledAt;
+
+    @Value("${app.stats.overdue-grace-seconds:60}")
+    private long overdueGraceSeconds;
+
+    @Value("${app.stats.reconcile-interval-ms:60000}")
+    private long reconcileIntervalMs;
+
+    @Value("${app.stats.lock-key:notifications:stats:reconcile-lock}")
+    private String lockKey;
+
+    @Value("${app.stats.snapshot-key:notifications:stats:snapshot}")
+    private String snapshotKey;
+
+    public JobStatsService(NotificationJobRepository jobRepository,
+                           JobKeysResolver jobKeysResolver,
+                           RedisTemplate<String, Object> redisTemplate,
+                           ObjectMapper objectMapper,
+                           InstanceIdentity instanceIdentity) {
+        this.jobRepository = jobRepository;
+        this.jobKeysResolver = jobKeysResolver;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.instanceIdentity = instanceIdentity;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(JobStatusChangedEvent event) {
+        int count = event.jobIds().size();
+        if (count == 0) {
+            return;
+        }
+        if (event.fromStatus() != null) {
+            counter(statusCounts, event.fromStatus()).add(-count);
+        }
+        counter(statusCounts, event.toStatus()).add(count);
+
+        // Claims (PENDING -> SENDING) and promotions stay within the backlog and need no keys
+        int backlogDelta = (BACKLOG.contains(event.toStatus()) ? 1 : 0)
+                - (event.fromStatus() != null && BACKLOG.contains(event.fromStatus()) ? 1 : 0);
+        if (backlogDelta == 0) {
+            return;
+        }
+        try {
+            for (JobKeys keys : jobKeysResolver.resolve(event.jobIds()).values()) {
+                counter(backlogByType, orUnknown(keys.type())).add(backlogDelta);
+                counter(backlogByTemplate, orUnknown(keys.templateKey())).add(backlogDelta);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️  [Stats] Could not look up {} jobs, backlog counts are off until the next reconcile: {}",
+                    count, e.getMessage());
+        }
+    }
+
+    public JobStats getStats() {
+        return JobStats.builder()
+                .byStatus(sums(statusCounts))
+                .backlogByType(sums(backlogByType))
+                .backlogByTemplate(sums(backlogByTemplate))
+                .overdue(overdue)
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        try {
+            JobStats latest;
+            if (takeReconcileTurn()) {
+                latest = recount();
+                publish(latest);
+            } else {
+                latest = readPublished();
+                if (latest == null || (reconciledAt != null && !latest.getReconciledAt().isAfter(reconciledAt))) {
+                    return;
+                }
+            }
+            // Transitions that happened since the recount may be off until the next run
+            rebase(statusCounts, latest.getByStatus());
+            rebase(backlogByType, latest.getBacklogByType());
+            rebase(backlogByTemplate, latest.getBacklogByTemplate());
+            overdue = latest.getOverdue();
+            reconciledAt = latest.getReconciledAt();
+        } catch (Exception e) {
+            log.error("❌ [Stats] Failed to reconcile job counts: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recount from PostgreSQL. The status scan only reads the narrow notification_job_state table;
+     * the per type / template breakdown is limited to unfinished jobs (idx_status_sendat).
+     */
+    private JobStats recount() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Long> byStatus = new HashMap<>();
+        for (Object[] row : jobRepository.countByStatus()) {
+            byStatus.put((String) row[0], ((Number) row[1]).longValue());
+        }
+
+        Map<String, Long> byType = new HashMap<>();
+        Map<String, Long> byTemplate = new HashMap<>();
+        for (Object[] row : jobRepository.countBacklogByTypeAndTemplate()) {
+            long count = ((Number) row[2]).longValue();
+            byType.merge(orUnknown((String) row[0]), count, Long::sum);
+            byTemplate.merge(orUnknown((String) row[1]), count, Long::sum);
+        }
+        long overdueNow = jobRepository.countOverdue(now.minusSeconds(overdueGraceSeconds));
+
+        log.debug("📊 [Stats] Recounted jobs in {} ms: {}", System.currentTimeMillis() - start, byStatus);
+        return new JobStats(byStatus, byType, byTemplate, overdueNow, now);
+    }
+
+    /**
+     * @return true if this instance should recount now: it took the lock for this interval,
+     *         or Redis is unavailable
+     */
+    private boolean takeReconcileTurn() {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(lockKey, instanceIdentity.getId(), Duration.ofMillis(reconcileIntervalMs)));
+        } catch (Exception e) {
+            log.warn("⚠️  [Stats] Redis unavailable, recounting locally: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void publish(JobStats stats) {
+        try {
+            // Outlives a few intervals, so instances keep rebasing if one recount is skipped
+            redisTemplate.opsForValue().set(snapshotKey, objectMapper.writeValueAsString(stats),
+                    Duration.ofMillis(reconcileIntervalMs * 5));
+        } catch (Exception e) {
+            log.warn("⚠️  [Stats] Failed to publish job counts: {}", e.getMessage());
+        }
+    }
+
+    private JobStats readPublished() throws Exception {
+        Object json = redisTemplate.opsForValue().get(snapshotKey);
+        return json == null ? null : objectMapper.readValue(json.toString(), JobStats.class);
+    }
+
+    /**
+     * Swap in fresh adders rather than reset() + add() in place, which would lose increments landing in between.
+     */
+    private static void rebase(Map<String, LongAdder> counters, Map<String, Long> counts) {
+        counters.keySet().retainAll(counts.keySet());
+        counts.forEach((key, count) -> {
+            LongAdder counter = new LongAdder();
+            counter.add(count);
+            counters.put(key, counter);
+        });
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> sums = new TreeMap<>();
+        counters.forEach((key, count) -> sums.put(key, Math.max(0, count.sum())));
+        return sums;
+    }
+
+    private static LongAdder counter(Map<String, LongAdder> counters, String key) {
+        return counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static String orUnknown(String value) {
+        return value == null ? UNKNOWN : value;
+    }
+}
@@ -0,0 +1,333 @@
+package com.scheduler.demo.service;
+
+import com.scheduler.demo.dto.JobKeys;
+import com.scheduler.demo.dto.JobStatusUpdate;
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pushes job status transitions to Server-Sent Events subscribers.
+ *
+ * Flow:
+ * 1. Transitions (local JobStatusChangedEvents, and those of other instances via JobStatusRelay) go into a
+ *    bounded queue - the thread that changed the status never waits for subscribers
+ * 2. A fan-out thread looks up the subscribers of each job: indexed by job id, user id or template key
+ *    (the most selective filter given), plus unfiltered ones; user / template are resolved per job id
+ *    through the JobKeysResolver, only while subscribers filtering on them exist (also those indexed by job id)
+ * 3. Each subscriber has its own outbox, drained by a virtual thread only while it has events, so idle
+ *    subscribers hold no thread and a slow client cannot hold up the others; a subscriber whose outbox
+ *    overflows is disconnected (clients reconnect and re-read the current status)
+ */
+@Service
+@Slf4j
+public class JobStatusBroadcaster {
+
+    /** Filters are combined with AND; null / empty means "any". */
+    public record Filter(Set<Long> jobIds, Long userId, String templateKey) {
+
+        boolean needsKeys() {
+            return userId != null || templateKey != null;
+        }
+
+        boolean matches(Long jobId, JobKeys keys) {
+            if (!jobIds.isEmpty() && !jobIds.contains(jobId)) {
+                return false;
+            }
+            if (!needsKeys()) {
+                return true;
+            }
+            return keys != null
+                    && (userId == null || userId.equals(keys.userId()))
+                    && (templateKey == null || templateKey.equals(keys.templateKey()));
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final Filter filter;
+        final Queue<SseEmitter.SseEventBuilder> outbox = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Filter filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+    }
+
+    private final JobKeysResolver jobKeysResolver;
+
+    private final Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> byJob = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byTemplate = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    /** Subscribers with a user / template filter, whichever index they are in */
+    private final AtomicInteger keyedSubscriberCount = new AtomicInteger();
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final BlockingQueue<JobStatusChangedEvent> events;
+    private volatile boolean running;
+    private Thread fanOut;
+
+    @Value("${app.sse.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.sse.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${app.sse.max-queued-per-subscriber:1000}")
+    private int maxQueuedPerSubscriber;
+
+    public JobStatusBroadcaster(JobKeysResolver jobKeysResolver,
+                                @Value("${app.sse.event-queue-capacity:10000}") int eventQueueCapacity) {
+        this.jobKeysResolver = jobKeysResolver;
+        this.events = new ArrayBlockingQueue<>(eventQueueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        fanOut = Thread.ofVirtual().name("sse-fan-out").start(this::fanOutLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        fanOut.interrupt();
+        forEachSubscriber(this::close);
+        senders.shutdown();
+    }
+
+    /**
+     * Register a subscriber.
+     *
+     * @return the emitter to return from the controller, or null when the subscriber limit is reached
+     */
+    public SseEmitter subscribe(Filter filter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(() -> closed(subscriber));
+        emitter.onTimeout(() -> closed(subscriber));
+        emitter.onError(e -> closed(subscriber));
+
+        index(subscriber);
+        enqueue(subscriber, SseEmitter.event().comment("subscribed"));
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(JobStatusChangedEvent event) {
+        broadcast(event);
+    }
+
+    /**
+     * Queue a transition for delivery; never blocks.
+     */
+    public void broadcast(JobStatusChangedEvent event) {
+        if (event.jobIds().isEmpty() || subscriberCount.get() == 0) {
+            return;
+        }
+        if (!events.offer(event)) {
+            log.warn("⚠️  [SSE] Event queue full, dropped {} {} -> {} transitions",
+                    event.jobIds().size(), event.fromStatus(), event.toStatus());
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies and detect clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        forEachSubscriber(subscriber -> enqueue(subscriber, SseEmitter.event().comment("keep-alive")));
+    }
+
+    private void fanOutLoop() {
+        while (running) {
+            try {
+                JobStatusChangedEvent event = events.poll(1, TimeUnit.SECONDS);
+                if (event != null) {
+                    deliver(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("❌ [SSE] Failed to deliver status event: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    void deliver(JobStatusChangedEvent event) {
+        Map<Long, JobKeys> keys = keyedSubscriberCount.get() == 0 ? Map.of() : jobKeysResolver.resolve(event.jobIds());
+
+        for (Long jobId : event.jobIds()) {
+            JobKeys jobKeys = keys.get(jobId);
+            // Each subscriber is indexed under exactly one of these for a given job, so nobody gets it twice
+            JobStatusUpdate update = new JobStatusUpdate(jobId, event.toStatus(), event.fromStatus(), event.changedAt());
+            send(all, jobId, jobKeys, update);
+            send(byJob.get(jobId), jobId, jobKeys, update);
+            if (jobKeys != null) {
+                send(byUser.get(jobKeys.userId()), jobId, jobKeys, update);
+                send(byTemplate.get(jobKeys.templateKey()), jobId, jobKeys, update);
+            }
+        }
+    }
+
+    private void send(Set<Subscriber> subscribers, Long jobId, JobKeys jobKeys, JobStatusUpdate update) {
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.filter.matches(jobId, jobKeys)) {
+                enqueue(subscriber, SseEmitter.event().name("status").id(String.valueOf(jobId)).data(update));
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (subscriber.queued.incrementAndGet() > maxQueuedPerSubscriber) {
+            log.warn("⚠️  [SSE] Disconnecting slow subscriber ({} events queued)", maxQueuedPerSubscriber);
+            close(subscriber);
+            return;
+        }
+        subscriber.outbox.add(event);
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = subscriber.outbox.poll()) != null) {
+                    subscriber.queued.decrementAndGet();
+                    subscriber.emitter.send(event);
+                }
+                subscriber.draining.set(false);
+                // An event may have been added after the last poll but before the flag was cleared
+            } while (!subscriber.outbox.isEmpty() && subscriber.draining.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected or emitter already completed
+            subscriber.draining.set(false);
+            close(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            remove(subscriber);
+            subscriber.outbox.clear();
+            try {
+                subscriber.emitter.complete();
+            } catch (Exception ignored) {
+                // already completed
+            }
+        }
+    }
+
+    /**
+     * Emitter finished on the container side (completed, timed out, or failed).
+     */
+    private void closed(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        subscriber.outbox.clear();
+        remove(subscriber);
+    }
+
+    private void index(Subscriber subscriber) {
+        Filter filter = subscriber.filter;
+        if (filter.needsKeys()) {
+            keyedSubscriberCount.incrementAndGet();
+        }
+        if (!filter.jobIds().isEmpty()) {
+            filter.jobIds().forEach(id -> byJob.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        } else if (filter.userId() != null) {
+            byUser.computeIfAbsent(filter.userId(), k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        } else if (filter.templateKey() != null) {
+            byTemplate.computeIfAbsent(filter.templateKey(), k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        } else {
+            all.add(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        boolean removed;
+        Filter filter = subscriber.filter;
+        if (!filter.jobIds().isEmpty()) {
+            removed = false;
+            for (Long id : filter.jobIds()) {
+                removed |= removeFrom(byJob, id, subscriber);
+            }
+        } else if (filter.userId() != null) {
+            removed = removeFrom(byUser, filter.userId(), subscriber);
+        } else if (filter.templateKey() != null) {
+            removed = removeFrom(byTemplate, filter.templateKey(), subscriber);
+        } else {
+            removed = all.remove(subscriber);
+        }
+        if (removed) {
+            subscriberCount.decrementAndGet();
+            if (filter.needsKeys()) {
+                keyedSubscriberCount.decrementAndGet();
+            }
+        }
+    }
+
+    private <K> boolean removeFrom(Map<K, Set<Subscriber>> index, K key, Subscriber subscriber) {
+        boolean[] removed = {false};
+        index.computeIfPresent(key, (k, subscribers) -> {
+            removed[0] = subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        return removed[0];
+    }
+
+    private void forEachSubscriber(Consumer<Subscriber> action) {
+        Set<Subscriber> seen = new HashSet<>(all);
+        byJob.values().forEach(seen::addAll);
+        byUser.values().forEach(seen::addAll);
+        byTemplate.values().forEach(seen::addAll);
+        seen.forEach(action);
+    }
+}
@@ -0,0 +1,267 @@
+package com.scheduler.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.demo.dto.NotificationResponse;
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier cache of NotificationResponse for status polling (GET /api/notifications/{id}).
+ *
+ * - L1: per-instance LocalCache, short TTL for unfinished jobs since other instances' transitions
+ *   only reach it through expiry
+ * - L2: Redis, shared by all instances; every instance deletes the entries of jobs it moves
+ *   (JobStatusChangedEvent), so L2 never serves a status older than the last transition
+ *
+ * Entries live only as long as clients are likely to poll: unfinished jobs for active-ttl,
+ * finished ones (which no longer change) for terminal-ttl. A read that races a transition can put
+ * the old status back after the invalidation; active-ttl bounds how long that lasts.
+ * Redis errors are logged and treated as misses - the caller falls back to PostgreSQL.
+ *
+ * L2 invalidations are queued and sent by a background thread, one DEL per batch, so the thread that
+ * made the transition does not wait for Redis; only when the queue is full does it delete them itself.
+ */
+@Service
+@Slf4j
+public class JobStatusCache {
+
+    private static final Set<String> TERMINAL = Set.of("COMPLETED", "FAILED", "CANCELLED");
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final LocalCache<Long, NotificationResponse> local;
+    private final BlockingQueue<Long> invalidations;
+    private volatile boolean running;
+    private Thread invalidator;
+
+    @Value("${app.cache.job-status.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.job-status.key-prefix:notifications:job:}")
+    private String keyPrefix;
+
+    @Value("${app.cache.job-status.local-ttl-ms:1000}")
+    private long localTtlMs;
+
+    @Value("${app.cache.job-status.active-ttl-seconds:30}")
+    private long activeTtlSeconds;
+
+    @Value("${app.cache.job-status.terminal-ttl-seconds:600}")
+    private long terminalTtlSeconds;
+
+    @Value("${app.cache.job-status.invalidation-batch-size:500}")
+    private int invalidationBatchSize;
+
+    public JobStatusCache(RedisTemplate<String, Object> redisTemplate,
+                          ObjectMapper objectMapper,
+                          @Value("${app.cache.job-status.local-max-size:100000}") int localMaxSize,
+                          @Value("${app.cache.job-status.invalidation-queue-capacity:10000}") int invalidationQueueCapacity) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.local = new LocalCache<>(localMaxSize);
+        this.invalidations = new ArrayBlockingQueue<>(invalidationQueueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        invalidator = Thread.ofVirtual().name("status-cache-invalidator").start(this::invalidateLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        // The invalidator drains what is queued before it exits
+        running = false;
+        invalidator.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * @return the cached response, or null on a miss (or when the cache is disabled)
+     */
+    public NotificationResponse get(Long id) {
+        if (!enabled) {
+            return null;
+        }
+        NotificationResponse cached = local.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Object json = redisTemplate.opsForValue().get(key(id));
+            if (json == null) {
+                return null;
+            }
+            NotificationResponse response = objectMapper.readValue(json.toString(), NotificationResponse.class);
+            local.put(id, response, localTtl(response));
+            return response;
+        } catch (Exception e) {
+            log.warn("⚠️  [Status Cache] Redis read failed for job {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Multi-get: L1 first, then one MGET to Redis for the rest.
+     *
+     * @return the cached responses by id; missing ids were not cached
+     */
+    public Map<Long, NotificationResponse> getAll(Collection<Long> ids) {
+        Map<Long, NotificationResponse> found = new HashMap<>();
+        if (!enabled) {
+            return found;
+        }
+        List<Long> remote = new ArrayList<>();
+        for (Long id : ids) {
+            NotificationResponse cached = local.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                remote.add(id);
+            }
+        }
+        if (remote.isEmpty()) {
+            return found;
+        }
+        try {
+            List<Object> values = redisTemplate.opsForValue().multiGet(remote.stream().map(this::key).toList());
+            for (int i = 0; values != null && i < values.size(); i++) {
+                Object json = values.get(i);
+                if (json != null) {
+                    NotificationResponse response = objectMapper.readValue(json.toString(), NotificationResponse.class);
+                    local.put(response.getId(), response, localTtl(response));
+                    found.put(response.getId(), response);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("⚠️  [Status Cache] Redis multi-get failed for {} jobs: {}", remote.size(), e.getMessage());
+        }
+        return found;
+    }
+
+    /**
+     * Cache many responses; the Redis writes go out in one pipeline.
+     */
+    @SuppressWarnings("unchecked")
+    public void putAll(Collection<NotificationResponse> responses) {
+        if (!enabled || responses.isEmpty()) {
+            return;
+        }
+        responses.forEach(response -> local.put(response.getId(), response, localTtl(response)));
+        try {
+            Map<String, String> values = new HashMap<>();
+            for (NotificationResponse response : responses) {
+                values.put(key(response.getId()), objectMapper.writeValueAsString(response));
+            }
+            Map<String, Duration> ttls = new HashMap<>();
+            responses.forEach(response -> ttls.put(key(response.getId()), redisTtl(response)));
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    values.forEach((key, json) -> ops.opsForValue().set(key, json, ttls.get(key)));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("⚠️  [Status Cache] Redis write failed for {} jobs: {}", responses.size(), e.getMessage());
+        }
+    }
+
+    public void put(NotificationResponse response) {
+        if (!enabled) {
+            return;
+        }
+        local.put(response.getId(), response, localTtl(response));
+        try {
+            redisTemplate.opsForValue().set(key(response.getId()), objectMapper.writeValueAsString(response), redisTtl(response));
+        } catch (Exception e) {
+            log.warn("⚠️  [Status Cache] Redis write failed for job {}: {}", response.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the cached status of jobs that just changed (after commit). Newly created jobs are not cached yet.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(JobStatusChangedEvent event) {
+        if (!enabled || event.fromStatus() == null || event.jobIds().isEmpty()) {
+            return;
+        }
+        local.invalidateAll(event.jobIds());
+        List<Long> overflow = new ArrayList<>();
+        for (Long id : event.jobIds()) {
+            if (!running || !invalidations.offer(id)) {
+                overflow.add(id);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            deleteFromRedis(overflow);
+        }
+    }
+
+    private void invalidateLoop() {
+        List<Long> batch = new ArrayList<>(invalidationBatchSize);
+        while (running || !invalidations.isEmpty()) {
+            try {
+                Long next = invalidations.poll(1, TimeUnit.SECONDS);
+                if (next == null) {
+                    continue;
+                }
+                batch.add(next);
+                invalidations.drainTo(batch, invalidationBatchSize - 1);
+                deleteFromRedis(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void deleteFromRedis(List<Long> ids) {
+        try {
+            redisTemplate.delete(ids.stream().map(this::key).toList());
+        } catch (Exception e) {
+            // Stale for at most active-ttl-seconds
+            log.warn("⚠️  [Status Cache] Failed to invalidate {} jobs in Redis: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    private String key(Long id) {
+        return keyPrefix + id;
+    }
+
+    private Duration localTtl(NotificationResponse response) {
+        // Finished jobs never change, so they can stay in L1 for as long as in Redis
+        return TERMINAL.contains(response.getStatus()) ? Duration.ofSeconds(terminalTtlSeconds) : Duration.ofMillis(localTtlMs);
+    }
+
+    private Duration redisTtl(NotificationResponse response) {
+        return Duration.ofSeconds(TERMINAL.contains(response.getStatus()) ? terminalTtlSeconds : activeTtlSeconds);
+    }
+}
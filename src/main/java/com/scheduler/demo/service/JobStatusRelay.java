@@ -0,0 +1,179 @@
+package com.scheduler.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays status transitions between instances over Redis pub/sub, so SSE subscribers see every
+ * transition no matter which instance made it or which instance they are connected to.
+ *
+ * Local transitions are published to the channel tagged with this instance's id; messages from
+ * other instances are handed to the JobStatusBroadcaster (own messages are skipped - they were
+ * delivered locally already). Pub/sub is fire-and-forget: subscribers of an instance that is
+ * briefly disconnected from Redis miss those transitions.
+ *
+ * Publishing never runs on the thread that made the transition (a worker or the write-behind flusher):
+ * transitions go into a bounded queue drained by a publisher thread, and are dropped when it is full.
+ * They are only queued while another instance has SSE subscribers. Instances with subscribers keep
+ * themselves in the presence-key sorted set (score = expiry), refreshed every presence-interval-ms;
+ * a subscriber connecting elsewhere may therefore miss up to two intervals of transitions, which the
+ * status it reads on connect covers.
+ *
+ * Only active when app.sse.redis-relay.enabled=true (default)
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.sse.redis-relay.enabled", havingValue = "true", matchIfMissing = true)
+public class JobStatusRelay implements MessageListener {
+
+    private record RelayMessage(String origin, List<Long> jobIds, String fromStatus, String toStatus,
+                                LocalDateTime changedAt) {}
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final JobStatusBroadcaster broadcaster;
+    private final InstanceIdentity instanceIdentity;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<JobStatusChangedEvent> outgoing;
+    private volatile boolean remoteSubscribers = true;
+    private volatile boolean running;
+    private Thread publisher;
+
+    @Value("${app.sse.redis-relay.channel:notifications:status-events}")
+    private String channel;
+
+    @Value("${app.sse.redis-relay.presence-key:notifications:sse:instances}")
+    private String presenceKey;
+
+    @Value("${app.sse.redis-relay.presence-interval-ms:2000}")
+    private long presenceIntervalMs;
+
+    public JobStatusRelay(RedisTemplate<String, Object> redisTemplate,
+                          RedisMessageListenerContainer listenerContainer,
+                          JobStatusBroadcaster broadcaster,
+                          InstanceIdentity instanceIdentity,
+                          ObjectMapper objectMapper,
+                          @Value("${app.sse.redis-relay.queue-capacity:10000}") int queueCapacity) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.broadcaster = broadcaster;
+        this.instanceIdentity = instanceIdentity;
+        this.objectMapper = objectMapper;
+        this.outgoing = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        running = true;
+        publisher = Thread.ofVirtual().name("status-relay").start(this::publishLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        publisher.interrupt();
+        try {
+            redisTemplate.opsForZSet().remove(presenceKey, instanceIdentity.getId());
+        } catch (Exception e) {
+            // Expires on its own
+        }
+    }
+
+    /**
+     * Queue a local transition for the other instances; never blocks.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(JobStatusChangedEvent event) {
+        if (event.jobIds().isEmpty() || !remoteSubscribers) {
+            return;
+        }
+        if (!outgoing.offer(event)) {
+            log.warn("⚠️  [Status Relay] Queue full, dropped {} {} -> {} transitions",
+                    event.jobIds().size(), event.fromStatus(), event.toStatus());
+        }
+    }
+
+    /**
+     * Announce whether this instance has SSE subscribers, and find out whether any other instance has.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.redis-relay.presence-interval-ms:2000}")
+    public void refreshPresence() {
+        String self = instanceIdentity.getId();
+        long now = System.currentTimeMillis();
+        try {
+            if (broadcaster.subscriberCount() > 0) {
+                redisTemplate.opsForZSet().add(presenceKey, self, now + presenceIntervalMs * 3);
+            } else {
+                redisTemplate.opsForZSet().remove(presenceKey, self);
+            }
+            redisTemplate.opsForZSet().removeRangeByScore(presenceKey, Double.NEGATIVE_INFINITY, now);
+            Set<Object> present = redisTemplate.opsForZSet().range(presenceKey, 0, -1);
+            remoteSubscribers = present != null && present.stream().anyMatch(instance -> !self.equals(instance));
+        } catch (Exception e) {
+            // Keep publishing; without Redis the publishes fail anyway
+            remoteSubscribers = true;
+            log.warn("⚠️  [Status Relay] Failed to refresh subscriber presence: {}", e.getMessage());
+        }
+    }
+
+    private void publishLoop() {
+        while (running) {
+            try {
+                JobStatusChangedEvent event = outgoing.poll(1, TimeUnit.SECONDS);
+                if (event != null) {
+                    publish(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void publish(JobStatusChangedEvent event) {
+        try {
+            String json = objectMapper.writeValueAsString(new RelayMessage(instanceIdentity.getId(),
+                    event.jobIds(), event.fromStatus(), event.toStatus(), event.changedAt()));
+            redisTemplate.convertAndSend(channel, json);
+        } catch (Exception e) {
+            log.warn("⚠️  [Status Relay] Failed to publish {} transitions: {}", event.jobIds().size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            RelayMessage relayed = objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8),
+                    RelayMessage.class);
+            if (instanceIdentity.getId().equals(relayed.origin())) {
+                return;
+            }
+            broadcaster.broadcast(new JobStatusChangedEvent(relayed.jobIds(), relayed.fromStatus(),
+                    relayed.toStatus(), relayed.changedAt()));
+        } catch (Exception e) {
+            log.warn("⚠️  [Status Relay] Ignoring malformed message: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.scheduler.demo.service;
+
+import com.scheduler.demo.model.NotificationJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heartbeat that keeps the leases of this instance's jobs alive until they finish.
+ *
+ * A lease starts at claim time, so it has to cover the wait in the notificationExecutor queue as well
+ * as the send itself (email permit, rate-limit delay, retries) - together easily longer than lease-seconds.
+ * Every claimed job is tracked here from the claim until its final status is handed off; the heartbeat
+ * pushes lease_expires_at to now + lease-seconds for all of them, one UPDATE ... FROM (VALUES ...) per
+ * batch. The lease token (attempt number) is part of the match, so an older claim never extends a newer one.
+ *
+ * Tracking stops when the job finishes, when the lease turns out to be lost, or after max-extension-seconds
+ * so a stuck worker cannot hold a job forever; the LeaseReaper then re-queues it once the lease runs out.
+ */
+@Component
+@Slf4j
+public class LeaseHeartbeat {
+
+    private record Lease(int attempt, LocalDateTime claimedAt) {}
+
+    private static final String EXTEND_SQL_PREFIX = "UPDATE notification_job_state s " +
+            "SET lease_expires_at = ? " +
+            "FROM (VALUES ";
+
+    private static final String EXTEND_SQL_SUFFIX = ") AS v(job_id, attempts) " +
+            "WHERE s.job_id = v.job_id AND s.attempts = v.attempts AND s.status = 'SENDING' AND s.lease_owner = ? " +
+            "RETURNING s.job_id";
+
+    private static final String VALUES_ROW = "(CAST(? AS bigint), CAST(? AS integer))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InstanceIdentity instanceIdentity;
+    private final Map<Long, Lease> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${app.scheduler.lease-seconds:300}")
+    private int leaseSeconds;
+
+    @Value("${app.scheduler.lease-heartbeat.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.scheduler.lease-heartbeat.max-extension-seconds:3600}")
+    private long maxExtensionSeconds;
+
+    public LeaseHeartbeat(JdbcTemplate jdbcTemplate, InstanceIdentity instanceIdentity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.instanceIdentity = instanceIdentity;
+    }
+
+    /**
+     * Start renewing the leases of jobs this instance just claimed (their attempts is the lease token).
+     */
+    public void track(Collection<NotificationJob> jobs) {
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationJob job : jobs) {
+            inFlight.put(job.getId(), new Lease(job.getAttempts(), now));
+        }
+    }
+
+    /**
+     * Stop renewing a lease (the job finished, or its claim was released).
+     */
+    public void untrack(Long jobId, int attempt) {
+        inFlight.computeIfPresent(jobId, (id, lease) -> lease.attempt() == attempt ? null : lease);
+    }
+
+    public void untrackAll(Collection<NotificationJob> jobs) {
+        jobs.forEach(job -> untrack(job.getId(), job.getAttempts()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.lease-heartbeat.interval-ms:60000}")
+    public void extendLeases() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime giveUpBefore = now.minusSeconds(maxExtensionSeconds);
+
+        List<Map.Entry<Long, Lease>> active = new ArrayList<>(inFlight.size());
+        for (Map.Entry<Long, Lease> entry : inFlight.entrySet()) {
+            if (entry.getValue().claimedAt().isBefore(giveUpBefore)) {
+                log.warn("⚠️  [Lease Heartbeat] Job {} in flight for over {}s, no longer extending its lease",
+                        entry.getKey(), maxExtensionSeconds);
+                untrack(entry.getKey(), entry.getValue().attempt());
+            } else {
+                active.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        int extended = 0;
+        for (int from = 0; from < active.size(); from += batchSize) {
+            try {
+                extended += extend(active.subList(from, Math.min(from + batchSize, active.size())),
+                        now.plusSeconds(leaseSeconds));
+            } catch (Exception e) {
+                // Retried on the next heartbeat, well before lease-seconds run out
+                log.error("❌ [Lease Heartbeat] Failed to extend {} leases: {}", Math.min(batchSize, active.size() - from),
+                        e.getMessage());
+            }
+        }
+        log.debug("⏱️  [Lease Heartbeat] Extended {} leases", extended);
+    }
+
+    private int extend(List<Map.Entry<Long, Lease>> batch, LocalDateTime leaseUntil) {
+        StringBuilder sql = new StringBuilder(EXTEND_SQL_PREFIX);
+        List<Object> args = new ArrayList<>(batch.size() * 2 + 2);
+        args.add(Timestamp.valueOf(leaseUntil));
+        for (int i = 0; i < batch.size(); i++) {
+            sql.append(i == 0 ? VALUES_ROW : "," + VALUES_ROW);
+            args.add(batch.get(i).getKey());
+            args.add(batch.get(i).getValue().attempt());
+        }
+        sql.append(EXTEND_SQL_SUFFIX);
+        args.add(instanceIdentity.getId());
+
+        Set<Long> held = new HashSet<>(jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray()));
+        for (Map.Entry<Long, Lease> lease : batch) {
+            if (!held.contains(lease.getKey())) {
+                // Finished in the meantime, or reaped - nothing left to keep alive
+                untrack(lease.getKey(), lease.getValue().attempt());
+            }
+        }
+        return held.size();
+    }
+}
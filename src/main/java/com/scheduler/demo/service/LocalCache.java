@@ -0,0 +1,91 @@
+package com.scheduler.demo.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Small in-process cache with a size bound and per-entry time-to-live, used as L1 in front of Redis.
+ *
+ * Reads are a single ConcurrentHashMap lookup. When the size bound is exceeded, expired entries are
+ * dropped first, then arbitrary ones (in map iteration order, not least recently used) until the cache
+ * is back to 90%. A hot entry can therefore be evicted and is simply reloaded on its next miss - good
+ * enough for an L1 whose misses fall through to Redis, but size the bound so eviction stays rare.
+ */
+public class LocalCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtNanos) {}
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public LocalCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtNanos() - System.nanoTime() <= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttl.toNanos()));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Replace the value of a cached key (keeping its expiry); absent keys stay absent.
+     */
+    public void computeIfPresent(K key, Function<V, V> update) {
+        entries.computeIfPresent(key, (k, entry) -> new Entry<>(update.apply(entry.value()), entry.expiresAtNanos()));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll(Collection<K> keys) {
+        keys.forEach(entries::remove);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Not LRU: no access order is tracked, so reads stay lock-free.
+     */
+    private synchronized void evict() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiresAtNanos() - now <= 0);
+
+        int target = maxSize - maxSize / 10;
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -3,11 +3,24 @@ package com.scheduler.demo.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.scheduler.demo.dto.CreateNotificationRequest;
+import com.scheduler.demo.dto.JobDueTime;
+import com.scheduler.demo.dto.NotificationPage;
+import com.scheduler.demo.dto.NotificationResponse;
+import com.scheduler.demo.dto.PageCursor;
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import com.scheduler.demo.event.NotificationJobsCreatedEvent;
 import com.scheduler.demo.model.NotificationJob;
+import com.scheduler.demo.model.NotificationOutbox;
 import com.scheduler.demo.repository.NotificationJobRepository;
+import com.scheduler.demo.repository.NotificationOutboxRepository;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -17,36 +30,140 @@ import java.util.*;
 public class NotificationService {
 
     private final NotificationJobRepository jobRepo;
-    private final TemplateService templateService;
+    private final NotificationOutboxRepository outboxRepo;
+    private final TemplateRenderer templateRenderer;
     private final NotificationSender sender;
     private final SqsNotificationService sqsService;
+    private final InstanceIdentity instanceIdentity;
+    private final StatusWriteBuffer statusWriteBuffer;
+    private final LeaseHeartbeat leaseHeartbeat;
+    private final JobKeysResolver jobKeysResolver;
+    private final JobStatusCache statusCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper mapper = new ObjectMapper();
 
+    @Value("${app.scheduler.lease-seconds:300}")
+    private int leaseSeconds;
+
+    @Value("${app.ingest.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.scheduler.sqs-promoter.window-seconds:900}")
+    private long sqsWindowSeconds;
+
+    @Value("${app.api.list.default-limit:100}")
+    private int defaultPageLimit;
+
+    @Value("${app.api.list.max-limit:1000}")
+    private int maxPageLimit;
+
     public NotificationService(NotificationJobRepository jobRepo,
-                               TemplateService templateService,
+                               NotificationOutboxRepository outboxRepo,
+                               TemplateRenderer templateRenderer,
                                NotificationSender sender,
-                               SqsNotificationService sqsService) {
+                               SqsNotificationService sqsService,
+                               InstanceIdentity instanceIdentity,
+                               StatusWriteBuffer statusWriteBuffer,
+                               LeaseHeartbeat leaseHeartbeat,
+                               JobKeysResolver jobKeysResolver,
+                               JobStatusCache statusCache,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher) {
         this.jobRepo = jobRepo;
-        this.templateService = templateService;
+        this.outboxRepo = outboxRepo;
+        this.templateRenderer = templateRenderer;
         this.sender = sender;
         this.sqsService = sqsService;
+        this.instanceIdentity = instanceIdentity;
+        this.statusWriteBuffer = statusWriteBuffer;
+        this.leaseHeartbeat = leaseHeartbeat;
+        this.jobKeysResolver = jobKeysResolver;
+        this.statusCache = statusCache;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
     }
 
-    @Transactional
     public NotificationJob createJob(CreateNotificationRequest req) {
+        return createJobs(List.of(req)).get(0);
+    }
+
+    /**
+     * Create jobs in chunks.
+     * Each chunk is inserted in its own short transaction (JDBC batch inserts, pooled sequence ids).
+     * When SQS is enabled, jobs due within the SQS delay window get an outbox entry in the same
+     * transaction; the OutboxRelay sends it to SQS afterwards, so no SQS call happens while the
+     * DB connection is held. Jobs due later stay PENDING until the SqsPromoter moves them over.
+     */
+    public List<NotificationJob> createJobs(List<CreateNotificationRequest> requests) {
+        boolean sqsEnabled = sqsService.isSqsEnabled();
+
+        List<NotificationJob> created = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            List<CreateNotificationRequest> chunk = requests.subList(from, Math.min(from + chunkSize, requests.size()));
+
+            // Save the whole chunk (+ outbox entries if SQS is enabled) in one transaction
+            List<NotificationJob> jobs = transactionTemplate.execute(tx -> insertChunk(chunk, sqsEnabled));
+            created.addAll(jobs);
+            jobKeysResolver.rememberAll(jobs);
+
+            // Committed - let in-memory schedulers know about the new PENDING jobs
+            List<JobDueTime> pending = jobs.stream()
+                    .filter(j -> "PENDING".equals(j.getStatus()))
+                    .map(j -> new JobDueTime(j.getId(), j.getSendAt()))
+                    .toList();
+            if (!pending.isEmpty()) {
+                eventPublisher.publishEvent(new NotificationJobsCreatedEvent(pending));
+                eventPublisher.publishEvent(new JobStatusChangedEvent(
+                        pending.stream().map(JobDueTime::id).toList(), null, "PENDING"));
+            }
+            if (pending.size() < jobs.size()) {
+                eventPublisher.publishEvent(new JobStatusChangedEvent(jobs.stream()
+                        .filter(j -> "QUEUED".equals(j.getStatus()))
+                        .map(NotificationJob::getId)
+                        .toList(), null, "QUEUED"));
+            }
+        }
+        log.info("✅ Created {} notification jobs", created.size());
+        return created;
+    }
+
+    private List<NotificationJob> insertChunk(List<CreateNotificationRequest> chunk, boolean sqsEnabled) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime sqsWindowEnd = now.plusSeconds(sqsWindowSeconds);
+        List<NotificationJob> jobs = new ArrayList<>(chunk.size());
+        for (CreateNotificationRequest req : chunk) {
+            // QUEUED = will be sent to SQS, PENDING = picked up by the scheduler (or promoted to SQS later)
+            boolean viaSqs = sqsEnabled && !req.getSendAt().isAfter(sqsWindowEnd);
+            jobs.add(toJob(req, viaSqs ? "QUEUED" : "PENDING", now));
+        }
+        jobRepo.saveAll(jobs);
+
+        List<NotificationOutbox> outbox = new ArrayList<>();
+        for (NotificationJob job : jobs) {
+            if ("QUEUED".equals(job.getStatus())) {
+                outbox.add(new NotificationOutbox(job.getId(), now));
+            }
+        }
+        if (!outbox.isEmpty()) {
+            outboxRepo.saveAll(outbox);
+        }
+        // Push the batch out now and detach, so large requests don't grow the persistence context
+        entityManager.flush();
+        entityManager.clear();
+        return jobs;
+    }
+
+    private NotificationJob toJob(CreateNotificationRequest req, String status, LocalDateTime now) {
         NotificationJob job = new NotificationJob();
         job.setUserId(req.getUserId());
         job.setType(req.getType());
         job.setTemplateKey(req.getTemplateKey());
         job.setSendAt(req.getSendAt());
-
-        // Set initial status based on whether SQS is enabled
-        if (sqsService.isSqsEnabled()) {
-            job.setStatus("QUEUED");  // Will be sent to SQS
-        } else {
-            job.setStatus("PENDING"); // Will be picked up by scheduler
-        }
-
+        job.setStatus(status);
         job.setRecipientEmail(req.getRecipientEmail());
         job.setUserName(req.getUserName());
         try {
@@ -54,24 +171,8 @@ public class NotificationService {
         } catch (JsonProcessingException e) {
             job.setPayload("{}");
         }
-        job.setCreatedAt(LocalDateTime.now());
-        job.setUpdatedAt(LocalDateTime.now());
-
-        // Save to database first
-        job = jobRepo.save(job);
-
-        // If SQS is enabled, send to queue
-        if (sqsService.isSqsEnabled()) {
-            boolean sent = sqsService.sendToQueue(job);
-            if (!sent) {
-                log.warn("⚠️  Failed to send job {} to SQS. Will be picked up by scheduler.", job.getId());
-                job.setStatus("PENDING"); // Fallback to polling
-                job = jobRepo.save(job);
-            } else {
-                log.info("✅ Job {} sent to SQS successfully", job.getId());
-            }
-        }
-
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
         return job;
     }
 
@@ -79,32 +180,122 @@ public class NotificationService {
         return jobRepo.findById(id);
     }
 
-    @Transactional
+    /**
+     * Status of a job for API clients: read through the status cache, falling back to a projection
+     * query that skips the payload.
+     */
+    public Optional<NotificationResponse> getJobResponse(Long id) {
+        NotificationResponse cached = statusCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<NotificationResponse> loaded = jobRepo.findResponseById(id);
+        loaded.ifPresent(statusCache::put);
+        return loaded;
+    }
+
+    /**
+     * Status of many jobs at once: cache hits first, one IN query for the rest.
+     *
+     * @return responses in request order; unknown ids are left out
+     */
+    public List<NotificationResponse> getJobResponses(Collection<Long> ids) {
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        Map<Long, NotificationResponse> found = statusCache.getAll(unique);
+
+        List<Long> missing = unique.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            List<NotificationResponse> loaded = jobRepo.findResponsesByIdIn(missing);
+            loaded.forEach(response -> found.put(response.getId(), response));
+            statusCache.putAll(loaded);
+        }
+
+        List<NotificationResponse> result = new ArrayList<>(found.size());
+        for (Long id : unique) {
+            NotificationResponse response = found.get(id);
+            if (response != null) {
+                result.add(response);
+            }
+        }
+        return result;
+    }
+
     public boolean cancelJob(Long id) {
-        Optional<NotificationJob> opt = jobRepo.findById(id);
-        if (opt.isEmpty()) return false;
-        NotificationJob j = opt.get();
-        if ("PENDING".equals(j.getStatus())) {
-            j.setStatus("CANCELLED");
-            j.setUpdatedAt(LocalDateTime.now());
-            jobRepo.save(j);
-            return true;
+        return transition(id, "PENDING", "CANCELLED");
+    }
+
+    /**
+     * Mark a job FAILED after an unexpected processing error - unless it has moved on in the meantime
+     * (finished, or leased again, by this or another instance).
+     *
+     * @param attempt lease token of the failed attempt (NotificationJob.getAttempts after the lease was taken)
+     */
+    public boolean failJob(Long id, int attempt) {
+        return finishLease(id, attempt, "FAILED")
+                || transition(id, "QUEUED", "FAILED")
+                || transition(id, "PENDING", "FAILED");
+    }
+
+    private boolean transition(Long id, String from, String to) {
+        if (jobRepo.transition(id, List.of(from), to, LocalDateTime.now()) == 0) {
+            return false;
         }
-        return false;
+        eventPublisher.publishEvent(new JobStatusChangedEvent(List.of(id), from, to));
+        return true;
+    }
+
+    private boolean finishLease(Long id, int attempt, String finalStatus) {
+        if (jobRepo.finishLease(id, instanceIdentity.getId(), attempt, finalStatus, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new JobStatusChangedEvent(List.of(id), "SENDING", finalStatus));
+        return true;
     }
 
     public void processJob(NotificationJob job) {
         log.info("📧 Processing job ID={}, type={}, template={}", job.getId(), job.getType(), job.getTemplateKey());
 
-        // Step 1: Update status to SENDING (short transaction)
-        updateJobStatus(job.getId(), "SENDING");
+        // Step 1: Take the lease and switch to SENDING (single conditional update)
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+        Optional<Integer> attempt = jobRepo.acquireLease(job.getId(), instanceIdentity.getId(), now, leaseUntil);
+        if (attempt.isEmpty()) {
+            log.warn("⚠️  Job ID={} was already taken by another worker. Skipping.", job.getId());
+            return;
+        }
+        eventPublisher.publishEvent(new JobStatusChangedEvent(List.of(job.getId()), job.getStatus(), "SENDING"));
+        job.setStatus("SENDING");
+        job.setLeaseOwner(instanceIdentity.getId());
+        job.setLeaseExpiresAt(leaseUntil);
+        job.setAttempts(attempt.get());
+        leaseHeartbeat.track(List.of(job));
 
-        // Step 2: Load template and prepare content (no DB connection needed)
-        Optional<String> t = templateService.getTemplateContent(job.getTemplateKey());
-        String content = t.orElse("Hi, this is notification for template " + job.getTemplateKey());
-        log.debug("Template content: {}", content);
+        try {
+            deliver(job);
+        } finally {
+            leaseHeartbeat.untrack(job.getId(), job.getAttempts());
+        }
+    }
 
-        // parse payload JSON to Map
+    /**
+     * Process a job that was already claimed (status SENDING + lease) by a dispatcher,
+     * which also registered its lease with the LeaseHeartbeat.
+     */
+    public void processClaimedJob(NotificationJob job) {
+        log.info("📧 Processing claimed job ID={}, type={}, template={}, lease owner={}",
+                job.getId(), job.getType(), job.getTemplateKey(), job.getLeaseOwner());
+        try {
+            deliver(job);
+        } finally {
+            leaseHeartbeat.untrack(job.getId(), job.getAttempts());
+        }
+    }
+
+    private void deliver(NotificationJob job) {
+        // Consumers of the final transition need the job's keys; spare them the lookup
+        jobKeysResolver.rememberAll(List.of(job));
+
+        // Step 2: Render the compiled template (no DB connection needed)
         Map<String, Object> payloadMap = new HashMap<>();
         try {
             payloadMap = mapper.readValue(job.getPayload(), Map.class);
@@ -112,58 +303,68 @@ public class NotificationService {
             log.warn("Failed to parse payload JSON: {}", e.getMessage());
         }
 
-        // simple placeholder replacement
-        String finalContent = render(content, payloadMap);
-        log.debug("Final content after rendering: {}", finalContent);
+        String finalContent = null;
+        try {
+            finalContent = templateRenderer.render(job.getTemplateKey(), payloadMap)
+                    .orElse("Hi, this is notification for template " + job.getTemplateKey());
+            log.debug("Final content after rendering: {}", finalContent);
+        } catch (IllegalArgumentException e) {
+            log.error("❌ Cannot render job ID={}: {}", job.getId(), e.getMessage());
+        }
 
         // Step 3: Send notification (no DB connection needed - can take 2+ seconds)
         boolean success = false;
-        try {
-            success = switch (job.getType().toUpperCase(Locale.ROOT)) {
-                case "EMAIL" -> sender.sendEmail(job , finalContent);
-                case "SMS" -> sender.sendSms(job , finalContent);
-                case "PUSH" -> sender.sendPush(job , finalContent);
-                default -> sender.sendEmail(job , finalContent);
-            };
-            log.info("✅ Notification sent successfully for job ID={}", job.getId());
-        } catch (Exception e) {
-            log.error("❌ Failed to send notification for job ID={}: {}", job.getId(), e.getMessage(), e);
-            success = false;
+        if (finalContent != null) {
+            try {
+                success = switch (job.getType().toUpperCase(Locale.ROOT)) {
+                    case "EMAIL" -> sender.sendEmail(job , finalContent);
+                    case "SMS" -> sender.sendSms(job , finalContent);
+                    case "PUSH" -> sender.sendPush(job , finalContent);
+                    default -> sender.sendEmail(job , finalContent);
+                };
+                log.info("✅ Notification sent successfully for job ID={}", job.getId());
+            } catch (Exception e) {
+                log.error("❌ Failed to send notification for job ID={}: {}", job.getId(), e.getMessage(), e);
+                success = false;
+            }
         }
 
-        // Step 4: Update final status (short transaction)
+        // Step 4: Update final status and release the lease (single conditional update),
+        // handed to the write-behind buffer when enabled so the worker can take the next job
         String finalStatus = success ? "COMPLETED" : "FAILED";
-        updateJobStatus(job.getId(), finalStatus);
+        if (statusWriteBuffer.offer(job.getId(), job.getAttempts(), finalStatus)) {
+            log.info("Job ID={} marked as {} (write-behind)", job.getId(), finalStatus);
+            return;
+        }
+        if (!finishLease(job.getId(), job.getAttempts(), finalStatus)) {
+            log.warn("⚠️  Job ID={} lost its lease before finishing, {} not recorded", job.getId(), finalStatus);
+            return;
+        }
         log.info("Job ID={} marked as {}", job.getId(), finalStatus);
     }
 
-    @Transactional
-    private void updateJobStatus(Long jobId, String status) {
-        Optional<NotificationJob> opt = jobRepo.findById(jobId);
-        if (opt.isPresent()) {
-            NotificationJob job = opt.get();
-            job.setStatus(status);
-            job.setUpdatedAt(LocalDateTime.now());
-            jobRepo.save(job);
-        }
-    }
+    /**
+     * One page of jobs in (sendAt, id) order, optionally for a single status.
+     *
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param limit  page size, null for the default; capped at app.api.list.max-limit
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    public NotificationPage listJobs(String status, String cursor, Integer limit) {
+        PageCursor after = cursor == null || cursor.isBlank() ? PageCursor.START : PageCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(limit == null ? defaultPageLimit : limit, maxPageLimit));
 
-    private String render(String template, Map<String, Object> data) {
-        String out = template;
-        // naive replacement of {{key}} with value
-        if (data != null) {
-            for (Map.Entry<String, Object> e : data.entrySet()) {
-                out = out.replace("{{" + e.getKey() + "}}", String.valueOf(e.getValue()));
-            }
-        }
-        return out;
-    }
+        // One extra row tells whether there is a next page
+        List<NotificationResponse> rows = status == null || status.isBlank()
+                ? jobRepo.findPage(after.sendAt(), after.id(), Limit.of(pageSize + 1))
+                : jobRepo.findPageByStatus(status, after.sendAt(), after.id(), Limit.of(pageSize + 1));
 
-    public List<NotificationJob> findAllByStatus(String status) {
-        if (status == null || status.isBlank()) {
-            return jobRepo.findAll();
+        if (rows.size() <= pageSize) {
+            return new NotificationPage(rows, null);
         }
-        return jobRepo.findByStatusAndSendAtBefore(status, LocalDateTime.now().plusYears(100)); // trick to reuse method
+        List<NotificationResponse> items = rows.subList(0, pageSize);
+        NotificationResponse last = items.get(pageSize - 1);
+        return new NotificationPage(items, new PageCursor(last.getSendAt(), last.getId()).encode());
     }
 
 }
@@ -1,5 +1,6 @@
 package com.scheduler.demo.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.scheduler.demo.dto.NotificationMessage;
 import com.scheduler.demo.model.NotificationJob;
@@ -7,8 +8,16 @@ import io.awspring.cloud.sqs.operations.SqsTemplate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for sending notification messages to AWS SQS.
@@ -17,7 +26,11 @@ import java.time.Duration;
 @Slf4j
 public class SqsNotificationService {
 
+    /** SQS accepts at most 10 entries per SendMessageBatch call. */
+    private static final int MAX_BATCH_ENTRIES = 10;
+
     private final SqsTemplate sqsTemplate;
+    private final SqsAsyncClient sqsAsyncClient;
     private final ObjectMapper objectMapper;
 
     @Value("${aws.sqs.queue.notification:notification-queue}")
@@ -26,8 +39,16 @@ public class SqsNotificationService {
     @Value("${aws.sqs.enabled:false}")
     private boolean sqsEnabled;
 
-    public SqsNotificationService(SqsTemplate sqsTemplate, ObjectMapper objectMapper) {
+    private volatile String queueUrl;
+
+    /**
+     * Outcome of a batch send - which jobs made it to the queue and which did not.
+     */
+    public record BatchSendResult(List<Long> sentJobIds, List<Long> failedJobIds) {}
+
+    public SqsNotificationService(SqsTemplate sqsTemplate, SqsAsyncClient sqsAsyncClient, ObjectMapper objectMapper) {
         this.sqsTemplate = sqsTemplate;
+        this.sqsAsyncClient = sqsAsyncClient;
         this.objectMapper = objectMapper;
     }
 
@@ -49,17 +70,7 @@ public class SqsNotificationService {
         }
 
         try {
-            NotificationMessage message = NotificationMessage.builder()
-                    .jobId(job.getId())
-                    .userId(job.getUserId())
-                    .type(job.getType())
-                    .templateKey(job.getTemplateKey())
-                    .userName(job.getUserName())
-                    .recipientEmail(job.getRecipientEmail())
-                    .payload(job.getPayload())
-                    .sendAt(job.getSendAt())
-                    .retryCount(0)
-                    .build();
+            NotificationMessage message = toMessage(job);
 
             // Calculate delay if sendAt is in the future
             Duration delay = calculateDelay(job);
@@ -88,10 +99,115 @@ public class SqsNotificationService {
         }
     }
 
+    /**
+     * Send many jobs to SQS using SendMessageBatch (10 entries per call, calls issued concurrently).
+     * Each entry carries its own delay. Entries rejected by SQS and entries of calls that failed
+     * entirely are reported in {@link BatchSendResult#failedJobIds()}.
+     */
+    public BatchSendResult sendBatchToQueue(List<NotificationJob> jobs) {
+        List<Long> sent = new ArrayList<>(jobs.size());
+        List<Long> failed = new ArrayList<>();
+
+        if (!isSqsEnabled() || sqsAsyncClient == null) {
+            log.warn("SQS is disabled or not configured, cannot send {} jobs", jobs.size());
+            jobs.forEach(job -> failed.add(job.getId()));
+            return new BatchSendResult(sent, failed);
+        }
+
+        String url;
+        try {
+            url = resolveQueueUrl();
+        } catch (Exception e) {
+            log.error("❌ Failed to resolve SQS queue URL for {}: {}", notificationQueueName, e.getMessage());
+            jobs.forEach(job -> failed.add(job.getId()));
+            return new BatchSendResult(sent, failed);
+        }
+
+        List<List<Long>> batchJobIds = new ArrayList<>();
+        List<CompletableFuture<SendMessageBatchResponse>> calls = new ArrayList<>();
+        for (int from = 0; from < jobs.size(); from += MAX_BATCH_ENTRIES) {
+            List<NotificationJob> batch = jobs.subList(from, Math.min(from + MAX_BATCH_ENTRIES, jobs.size()));
+            List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (NotificationJob job : batch) {
+                try {
+                    entries.add(toBatchEntry(job));
+                    ids.add(job.getId());
+                } catch (Exception e) {
+                    log.error("❌ Failed to serialize job {} for SQS: {}", job.getId(), e.getMessage());
+                    failed.add(job.getId());
+                }
+            }
+            if (entries.isEmpty()) {
+                continue;
+            }
+            batchJobIds.add(ids);
+            calls.add(sqsAsyncClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                    .queueUrl(url)
+                    .entries(entries)
+                    .build()));
+        }
+
+        for (int i = 0; i < calls.size(); i++) {
+            List<Long> ids = batchJobIds.get(i);
+            try {
+                SendMessageBatchResponse response = calls.get(i).join();
+                response.successful().forEach(ok -> sent.add(Long.valueOf(ok.id())));
+                for (BatchResultErrorEntry error : response.failed()) {
+                    log.warn("⚠️  SQS rejected job {}: {} {}", error.id(), error.code(), error.message());
+                    failed.add(Long.valueOf(error.id()));
+                }
+            } catch (Exception e) {
+                log.error("❌ SendMessageBatch failed for jobs {}: {}", ids, e.getMessage());
+                failed.addAll(ids);
+            }
+        }
+
+        log.info("📤 Sent {} of {} jobs to SQS in {} batch calls", sent.size(), jobs.size(), calls.size());
+        return new BatchSendResult(sent, failed);
+    }
+
+    private SendMessageBatchRequestEntry toBatchEntry(NotificationJob job) throws JsonProcessingException {
+        SendMessageBatchRequestEntry.Builder entry = SendMessageBatchRequestEntry.builder()
+                .id(String.valueOf(job.getId())) // unique within the batch, maps failures back to jobs
+                .messageBody(objectMapper.writeValueAsString(toMessage(job)));
+
+        Duration delay = calculateDelay(job);
+        if (delay != null && delay.getSeconds() > 0) {
+            entry.delaySeconds((int) delay.getSeconds());
+        }
+        return entry.build();
+    }
+
+    private NotificationMessage toMessage(NotificationJob job) {
+        return NotificationMessage.builder()
+                .jobId(job.getId())
+                .userId(job.getUserId())
+                .type(job.getType())
+                .templateKey(job.getTemplateKey())
+                .userName(job.getUserName())
+                .recipientEmail(job.getRecipientEmail())
+                .payload(job.getPayload())
+                .sendAt(job.getSendAt())
+                .retryCount(0)
+                .build();
+    }
+
+    private String resolveQueueUrl() {
+        if (queueUrl == null) {
+            queueUrl = sqsAsyncClient.getQueueUrl(req -> req.queueName(notificationQueueName))
+                    .join()
+                    .queueUrl();
+            log.info("✅ Resolved SQS queue URL: {}", queueUrl);
+        }
+        return queueUrl;
+    }
+
     /**
      * Calculate delay for scheduled messages.
-     * SQS supports delays up to 15 minutes (900 seconds).
-     * For longer delays, we'll need to use a different approach.
+     * SQS supports delays up to 15 minutes (900 seconds). Jobs due later are kept in PostgreSQL
+     * until the SqsPromoter moves them over; a message that still arrives early is re-delayed
+     * by the consumer.
      */
     private Duration calculateDelay(NotificationJob job) {
         if (job.getSendAt() == null) {
@@ -106,9 +222,8 @@ public class SqsNotificationService {
 
         // SQS max delay is 15 minutes (900 seconds)
         if (delay.getSeconds() > 900) {
-            log.warn("⚠️  Job {} has sendAt > 15 minutes in future. " +
-                    "SQS max delay is 15 minutes. Consider using a scheduler for longer delays.", 
-                    job.getId());
+            log.debug("Job {} has sendAt > 15 minutes in future, capping the SQS delay; " +
+                    "the consumer re-delays it on arrival", job.getId());
             return Duration.ofSeconds(900); // Max delay
         }
 
@@ -0,0 +1,202 @@
+package com.scheduler.demo.service;
+
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for final job statuses (COMPLETED / FAILED).
+ *
+ * Workers hand the status over and go back to sending; a flusher thread writes the buffer as one
+ * UPDATE ... FROM (VALUES ...) per batch, as soon as batch-size entries are waiting or flush-interval-ms
+ * after the first one. Like the synchronous path, a row is only updated while this instance still holds
+ * the job's lease for the same attempt (the lease token).
+ *
+ * When disabled, stopped or full, offer() returns false and the caller writes synchronously.
+ * Statuses lost in a crash leave the job SENDING; the LeaseReaper re-queues it once the lease expires.
+ *
+ * Only used when app.status.write-behind.enabled=true
+ */
+@Component
+@Slf4j
+public class StatusWriteBuffer {
+
+    private record StatusWrite(Long jobId, int attempt, String status, LocalDateTime updatedAt) {}
+
+    private static final String UPDATE_SQL_PREFIX = "UPDATE notification_job_state s " +
+            "SET status = v.status, lease_owner = NULL, lease_expires_at = NULL, updated_at = v.updated_at " +
+            "FROM (VALUES ";
+
+    private static final String UPDATE_SQL_SUFFIX = ") AS v(job_id, attempts, status, updated_at) " +
+            "WHERE s.job_id = v.job_id AND s.attempts = v.attempts AND s.status = 'SENDING' AND s.lease_owner = ? " +
+            "RETURNING s.job_id, s.status";
+
+    private static final String VALUES_ROW =
+            "(CAST(? AS bigint), CAST(? AS integer), CAST(? AS varchar), CAST(? AS timestamp))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InstanceIdentity instanceIdentity;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.status.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.status.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.status.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.status.write-behind.flush-interval-ms:20}")
+    private long flushIntervalMs;
+
+    @Value("${app.status.write-behind.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.status.write-behind.error-backoff-ms:500}")
+    private long errorBackoffMs;
+
+    private BlockingQueue<StatusWrite> buffer;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public StatusWriteBuffer(JdbcTemplate jdbcTemplate, InstanceIdentity instanceIdentity,
+                             ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.instanceIdentity = instanceIdentity;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        buffer = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        flusher = Thread.ofVirtual().name("status-write-behind").start(this::flushLoop);
+        log.info("✅ [Status Buffer] Write-behind enabled (batch {}, every {} ms)", batchSize, flushIntervalMs);
+    }
+
+    /**
+     * Buffer the final status of a job leased by this instance.
+     *
+     * @param attempt lease token of the job (its attempts value after the claim)
+     * @return false if the status was not buffered - the caller must write it itself
+     */
+    public boolean offer(Long jobId, int attempt, String status) {
+        if (!running) {
+            return false;
+        }
+        return buffer.offer(new StatusWrite(jobId, attempt, status, LocalDateTime.now()));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        // The flusher drains what is buffered before it exits
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Anything offered while stopping
+        List<StatusWrite> rest = new ArrayList<>();
+        buffer.drainTo(rest);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+        log.info("[Status Buffer] Stopped");
+    }
+
+    private void flushLoop() {
+        List<StatusWrite> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                StatusWrite next = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                // Wait at most flush-interval-ms after the first entry for the batch to fill up
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (next != null) {
+                    batch.add(next);
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    if (batch.size() >= batchSize) {
+                        break;
+                    }
+                    next = buffer.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                return;
+            }
+        }
+    }
+
+    private void write(List<StatusWrite> batch) {
+        StringBuilder sql = new StringBuilder(UPDATE_SQL_PREFIX);
+        List<Object> args = new ArrayList<>(batch.size() * 4 + 1);
+        for (int i = 0; i < batch.size(); i++) {
+            StatusWrite write = batch.get(i);
+            sql.append(i == 0 ? VALUES_ROW : "," + VALUES_ROW);
+            args.add(write.jobId());
+            args.add(write.attempt());
+            args.add(write.status());
+            args.add(Timestamp.valueOf(write.updatedAt()));
+        }
+        sql.append(UPDATE_SQL_SUFFIX);
+        args.add(instanceIdentity.getId());
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Map<String, List<Long>> written = new HashMap<>();
+                jdbcTemplate.query(sql.toString(), rs -> {
+                    written.computeIfAbsent(rs.getString(2), s -> new ArrayList<>()).add(rs.getLong(1));
+                }, args.toArray());
+                written.forEach((status, ids) -> eventPublisher.publishEvent(new JobStatusChangedEvent(ids, "SENDING", status)));
+
+                int updated = written.values().stream().mapToInt(List::size).sum();
+                if (updated < batch.size()) {
+                    log.warn("⚠️  [Status Buffer] {} of {} jobs lost their lease before the status was written",
+                            batch.size() - updated, batch.size());
+                }
+                log.debug("💾 [Status Buffer] Wrote {} final statuses", updated);
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    log.error("❌ [Status Buffer] Giving up writing {} statuses after {} attempts; " +
+                            "the jobs stay SENDING until their lease expires: {}", batch.size(), attempt, e.getMessage());
+                    return;
+                }
+                log.warn("⚠️  [Status Buffer] Failed to write {} statuses (attempt {}): {}",
+                        batch.size(), attempt, e.getMessage());
+                try {
+                    Thread.sleep(errorBackoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.scheduler.demo.service;
+
+import com.scheduler.demo.event.TemplateChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Renders notification text from compiled templates.
+ *
+ * Compiled templates are kept in a per-instance LocalCache (L1) in front of the Redis
+ * "template-contents" cache, so a send normally costs one map lookup and no network hop. Unknown keys
+ * are cached too (as empty), since every job of a campaign asks for the same key. local-max-size should
+ * exceed the number of templates in use: LocalCache evicts arbitrary entries, not the least recently used.
+ *
+ * When a template is saved, the instance that saved it evicts the Redis entry after the commit and
+ * announces the key on the invalidation channel; every instance (itself included) then drops its L1
+ * entry and compiles the new version on the next send. An instance that misses the message (Redis
+ * pub/sub is fire-and-forget) serves the old version until local-ttl runs out; a read that races the
+ * save can put the old content back into Redis, which spring.cache.redis.time-to-live bounds.
+ */
+@Component
+@Slf4j
+public class TemplateRenderer implements MessageListener {
+
+    private final TemplateService templateService;
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final LocalCache<String, Optional<CompiledTemplate>> local;
+
+    @Value("${app.template.missing-key:KEEP}")
+    private CompiledTemplate.MissingKeyPolicy missingKeyPolicy;
+
+    @Value("${app.cache.templates.local-ttl-seconds:300}")
+    private long localTtlSeconds;
+
+    @Value("${app.cache.templates.invalidation-channel:notifications:template-invalidations}")
+    private String channel;
+
+    public TemplateRenderer(TemplateService templateService,
+                            CacheManager cacheManager,
+                            RedisTemplate<String, Object> redisTemplate,
+                            RedisMessageListenerContainer listenerContainer,
+                            @Value("${app.cache.templates.local-max-size:1000}") int localMaxSize) {
+        this.templateService = templateService;
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.local = new LocalCache<>(localMaxSize);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * @return the rendered text, or empty if there is no template with this key
+     * @throws IllegalArgumentException if a placeholder has no value and app.template.missing-key=FAIL
+     */
+    public Optional<String> render(String templateKey, Map<String, ?> data) {
+        return getCompiled(templateKey).map(template -> template.render(data, missingKeyPolicy));
+    }
+
+    public Optional<CompiledTemplate> getCompiled(String templateKey) {
+        Optional<CompiledTemplate> cached = local.get(templateKey);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<CompiledTemplate> compiled = templateService.getTemplate(templateKey)
+                .map(content -> CompiledTemplate.compile(templateKey, content.version(), content.content()));
+        local.put(templateKey, compiled, Duration.ofSeconds(localTtlSeconds));
+        compiled.ifPresent(template -> log.debug("[Templates] Compiled {} v{} ({} placeholders)",
+                templateKey, template.getVersion(), template.getPlaceholders().size()));
+        return compiled;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTemplateChanged(TemplateChangedEvent event) {
+        local.invalidate(event.keyName());
+        try {
+            Cache contents = cacheManager.getCache(TemplateService.CONTENT_CACHE);
+            if (contents != null) {
+                contents.evict(event.keyName());
+            }
+            redisTemplate.convertAndSend(channel, event.keyName());
+            log.info("🔄 [Templates] {} updated to v{}, caches invalidated", event.keyName(), event.version());
+        } catch (Exception e) {
+            // Other instances pick the new version up once their L1 and Redis entries expire
+            log.warn("⚠️  [Templates] Failed to invalidate {} in Redis: {}", event.keyName(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        local.invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -1,24 +1,54 @@
 package com.scheduler.demo.service;
 
+import com.scheduler.demo.dto.TemplateContent;
+import com.scheduler.demo.event.TemplateChangedEvent;
 import com.scheduler.demo.model.Template;
 import com.scheduler.demo.repository.TemplateRepository;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Service
 public class TemplateService {
 
+    public static final String CONTENT_CACHE = "template-contents";
+
     private final TemplateRepository templateRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TemplateService(TemplateRepository templateRepository) {
+    public TemplateService(TemplateRepository templateRepository, ApplicationEventPublisher eventPublisher) {
         this.templateRepository = templateRepository;
+        this.eventPublisher = eventPublisher;
     }
 
-    @Cacheable(value = "templates", key = "#key")
-    public Optional<String> getTemplateContent(String key) {
-        return templateRepository.findByKeyName(key).map(Template::getContent);
+    @Cacheable(value = CONTENT_CACHE, key = "#key")
+    public Optional<TemplateContent> getTemplate(String key) {
+        return templateRepository.findByKeyName(key).map(this::toContent);
+    }
+
+    /**
+     * Create or update a template. Cached copies are dropped on every instance after the commit
+     * (see TemplateRenderer).
+     */
+    @Transactional
+    public TemplateContent saveTemplate(String key, String content) {
+        Template template = templateRepository.findByKeyName(key).orElseGet(() -> {
+            Template created = new Template();
+            created.setKeyName(key);
+            return created;
+        });
+        template.setContent(content);
+        // Flush now so the bumped version is known
+        TemplateContent saved = toContent(templateRepository.saveAndFlush(template));
+        eventPublisher.publishEvent(new TemplateChangedEvent(key, saved.version()));
+        return saved;
     }
-}
 
+    private TemplateContent toContent(Template t) {
+        return new TemplateContent(t.getKeyName(), t.getVersion() == null ? 0 : t.getVersion(),
+                t.getContent() == null ? "" : t.getContent());
+    }
+}
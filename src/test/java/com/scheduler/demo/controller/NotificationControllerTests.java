@@ -0,0 +1,52 @@
+package com.scheduler.demo.controller;
+
+import com.scheduler.demo.dto.NotificationPage;
+import com.scheduler.demo.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationControllerTests {
+
+	@Mock
+	private NotificationService notificationService;
+	@InjectMocks
+	private NotificationController controller;
+
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() {
+		mvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	void listAnswersMalformedCursorWithBadRequest() throws Exception {
+		when(notificationService.listJobs(null, "garbage", null)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+		mvc.perform(get("/api/notifications").param("cursor", "garbage"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void listPassesCursorAndLimitThrough() throws Exception {
+		when(notificationService.listJobs("PENDING", "abc", 10)).thenReturn(new NotificationPage(List.of(), "next"));
+
+		mvc.perform(get("/api/notifications").param("status", "PENDING").param("cursor", "abc").param("limit", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.nextCursor").value("next"));
+	}
+}
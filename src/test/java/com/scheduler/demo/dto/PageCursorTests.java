@@ -0,0 +1,39 @@
+package com.scheduler.demo.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTests {
+
+	@Test
+	void roundTripsThroughItsToken() {
+		PageCursor cursor = new PageCursor(LocalDateTime.of(2026, 3, 4, 5, 6, 7, 890_000_000), 123456789L);
+
+		String token = cursor.encode();
+
+		assertThat(token).matches("[A-Za-z0-9_-]+");
+		assertThat(PageCursor.decode(token)).isEqualTo(cursor);
+		assertThat(PageCursor.decode(PageCursor.START.encode())).isEqualTo(PageCursor.START);
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		for (String token : new String[] {"not base64!", encode("no separator"), encode("yesterday|1"),
+				encode("2026-03-04T05:06|abc"), ""}) {
+			assertThatThrownBy(() -> PageCursor.decode(token))
+					.as(token)
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessage("Invalid cursor");
+		}
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,43 @@
+package com.scheduler.demo.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTests {
+
+	@Test
+	void firesEachItemAtItsDeadline() {
+		TimingWheel<Long> wheel = new TimingWheel<>(1, 8, 1_000);
+		Random random = new Random(42);
+		List<Long> deadlines = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			long deadline = 1_001 + random.nextInt(100_000);
+			deadlines.add(deadline);
+			assertThat(wheel.add(deadline, deadline)).isTrue();
+		}
+
+		List<long[]> fired = new ArrayList<>();
+		for (long now = 1_000; now <= 102_000; now += 7) {
+			long at = now;
+			wheel.advanceClock(now, deadline -> fired.add(new long[]{deadline, at}));
+		}
+
+		assertThat(fired).hasSize(deadlines.size());
+		assertThat(wheel.size()).isZero();
+		// Never early, and at most one advance step late
+		assertThat(fired).allSatisfy(f -> assertThat(f[1]).isBetween(f[0], f[0] + 6));
+	}
+
+	@Test
+	void rejectsItemsAlreadyDue() {
+		TimingWheel<String> wheel = new TimingWheel<>(1, 8, 1_000);
+		assertThat(wheel.add(999, "past")).isFalse();
+		assertThat(wheel.add(1_000, "now")).isFalse();
+		assertThat(wheel.add(1_001, "next tick")).isTrue();
+	}
+}
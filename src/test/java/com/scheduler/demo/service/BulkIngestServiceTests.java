@@ -0,0 +1,96 @@
+package com.scheduler.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.demo.dto.BulkIngestResponse;
+import com.scheduler.demo.dto.CreateNotificationRequest;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class BulkIngestServiceTests {
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+	@Mock
+	private Validator validator;
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper();
+	@InjectMocks
+	private BulkIngestService service;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "chunkSize", 100);
+		ReflectionTestUtils.setField(service, "maxReportedErrors", 10);
+	}
+
+	@Test
+	void parsesQuotedFields() {
+		assertThat(BulkIngestService.parseCsvLine("a,\"b,c\",\"say \"\"hi\"\"\",,\"\""))
+				.containsExactly("a", "b,c", "say \"hi\"", "", "");
+		// Whitespace is kept; fromCsv trims where it matters
+		assertThat(BulkIngestService.parseCsvLine(" a , b")).containsExactly(" a ", " b");
+		assertThat(BulkIngestService.parseCsvLine("")).containsExactly("");
+	}
+
+	@Test
+	void mapsColumnsByHeaderName() throws IOException {
+		String[] header = {"templateKey", " sendAt ", "userId", "type", "data", "recipientEmail", "userName", "extra"};
+
+		CreateNotificationRequest req = service.fromCsv(header,
+				"promo,2026-01-02T09:30, 42 ,EMAIL,\"{\"\"name\"\":\"\"Ann, Lee\"\"}\",ann@example.com,Ann,ignored");
+
+		assertThat(req.getTemplateKey()).isEqualTo("promo");
+		assertThat(req.getSendAt()).isEqualTo(LocalDateTime.of(2026, 1, 2, 9, 30));
+		assertThat(req.getUserId()).isEqualTo(42L);
+		assertThat(req.getType()).isEqualTo("EMAIL");
+		assertThat(req.getData()).isEqualTo(Map.of("name", "Ann, Lee"));
+		assertThat(req.getRecipientEmail()).isEqualTo("ann@example.com");
+		assertThat(req.getUserName()).isEqualTo("Ann");
+	}
+
+	@Test
+	void leavesMissingAndBlankColumnsEmpty() throws IOException {
+		CreateNotificationRequest req = service.fromCsv(new String[] {"type", "userId", "sendAt", "data"}, "SMS,,");
+
+		assertThat(req.getType()).isEqualTo("SMS");
+		assertThat(req.getUserId()).isNull();
+		assertThat(req.getSendAt()).isNull();
+		assertThat(req.getData()).isNull();
+		assertThatThrownBy(() -> service.fromCsv(new String[] {"userId"}, "abc"))
+				.isInstanceOf(NumberFormatException.class);
+	}
+
+	@Test
+	void rejectsUnreadableRowsWithTheirLineNumber() throws IOException {
+		String csv = "userId,sendAt\n\nabc,2026-01-02T09:30\n7,tomorrow\n";
+
+		BulkIngestResponse response = service.ingest(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BulkIngestService.Format.CSV);
+
+		assertThat(response.getAccepted()).isZero();
+		assertThat(response.getRejected()).isEqualTo(2);
+		assertThat(response.getErrors()).hasSize(2);
+		assertThat(response.getErrors().get(0)).startsWith("line 3: unreadable record");
+		assertThat(response.getErrors().get(1)).startsWith("line 4: unreadable record");
+		verifyNoInteractions(jdbcTemplate);
+	}
+}
@@ -0,0 +1,45 @@
+package com.scheduler.demo.service;
+
+import com.scheduler.demo.service.CompiledTemplate.MissingKeyPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledTemplateTests {
+
+	@Test
+	void rendersPlaceholdersInOnePass() {
+		CompiledTemplate template = CompiledTemplate.compile("order", 1, "Hi {{name}}, order {{orderId}} ships {{name}}!");
+
+		assertThat(template.getPlaceholders()).containsExactly("name", "orderId", "name");
+		assertThat(template.render(Map.of("name", "Ann", "orderId", 42, "unused", "x"), MissingKeyPolicy.FAIL))
+				.isEqualTo("Hi Ann, order 42 ships Ann!");
+		// Values are not expanded again
+		assertThat(template.render(Map.of("name", "{{orderId}}", "orderId", 7), MissingKeyPolicy.FAIL))
+				.isEqualTo("Hi {{orderId}}, order 7 ships {{orderId}}!");
+	}
+
+	@Test
+	void keepsTextThatIsNotAPlaceholder() {
+		assertThat(CompiledTemplate.compile("t", 1, "a {{}} b {{open").render(Map.of(), MissingKeyPolicy.FAIL))
+				.isEqualTo("a {{}} b {{open");
+		assertThat(CompiledTemplate.compile("t", 1, "{{x}}").render(Map.of("x", "only"), MissingKeyPolicy.FAIL))
+				.isEqualTo("only");
+		assertThat(CompiledTemplate.compile("t", 1, "").render(null, MissingKeyPolicy.FAIL)).isEmpty();
+	}
+
+	@Test
+	void appliesMissingKeyPolicy() {
+		CompiledTemplate template = CompiledTemplate.compile("welcome", 3, "Hi {{name}}!");
+
+		assertThat(template.render(Map.of(), MissingKeyPolicy.KEEP)).isEqualTo("Hi {{name}}!");
+		assertThat(template.render(null, MissingKeyPolicy.EMPTY)).isEqualTo("Hi !");
+		assertThatThrownBy(() -> template.render(Map.of("other", 1), MissingKeyPolicy.FAIL))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("{{name}}")
+				.hasMessageContaining("welcome");
+	}
+}
@@ -0,0 +1,186 @@
+package com.scheduler.demo.service;
+
+import com.scheduler.demo.dto.JobKeys;
+import com.scheduler.demo.event.JobStatusChangedEvent;
+import com.scheduler.demo.repository.NotificationJobRepository;
+import com.scheduler.demo.service.JobStatusBroadcaster.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobStatusBroadcasterTests {
+
+	private static final Pattern STATUS_EVENT_ID = Pattern.compile("event:status\\nid:(\\d+)");
+
+	private static final Map<Long, JobKeys> KEYS = Map.of(
+			1L, new JobKeys(1L, 7L, "EMAIL", "promo"),
+			2L, new JobKeys(2L, 7L, "SMS", "welcome"),
+			3L, new JobKeys(3L, 9L, "EMAIL", "promo"));
+
+	private final NotificationJobRepository jobRepository = mock(NotificationJobRepository.class);
+	private final CountDownLatch sendGate = new CountDownLatch(1);
+	private volatile boolean blockSends;
+	private JobStatusBroadcaster broadcaster;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(jobRepository.findJobKeys(any())).thenAnswer(invocation -> ((Collection<Long>) invocation.getArgument(0))
+				.stream().map(KEYS::get).toList());
+		broadcaster = new JobStatusBroadcaster(new JobKeysResolver(jobRepository, 100, 60), 100) {
+			@Override
+			SseEmitter createEmitter() {
+				return new RecordingEmitter();
+			}
+		};
+		ReflectionTestUtils.setField(broadcaster, "emitterTimeoutMs", 60_000L);
+		ReflectionTestUtils.setField(broadcaster, "maxSubscribers", 100);
+		ReflectionTestUtils.setField(broadcaster, "maxQueuedPerSubscriber", 100);
+	}
+
+	@AfterEach
+	void tearDown() {
+		sendGate.countDown();
+	}
+
+	@Test
+	void routesTransitionsByFilter() throws InterruptedException {
+		RecordingEmitter any = subscribe(new Filter(Set.of(), null, null));
+		RecordingEmitter job1 = subscribe(new Filter(Set.of(1L), null, null));
+		RecordingEmitter user7 = subscribe(new Filter(Set.of(), 7L, null));
+		RecordingEmitter promo = subscribe(new Filter(Set.of(), null, "promo"));
+		RecordingEmitter user9Promo = subscribe(new Filter(Set.of(), 9L, "promo"));
+
+		broadcaster.deliver(new JobStatusChangedEvent(List.of(1L, 2L, 3L), "PENDING", "SENDING"));
+
+		assertThat(any.statusEvents(3)).containsExactlyInAnyOrder(1L, 2L, 3L);
+		assertThat(job1.statusEvents(1)).containsExactly(1L);
+		assertThat(user7.statusEvents(2)).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(promo.statusEvents(2)).containsExactlyInAnyOrder(1L, 3L);
+		assertThat(user9Promo.statusEvents(1)).containsExactly(3L);
+		assertThat(job1.statusEvents(0)).isEmpty();
+	}
+
+	@Test
+	void resolvesKeysForCombinedJobFilterAlone() throws InterruptedException {
+		// Indexed by job id only; no user / template subscriber is connected
+		RecordingEmitter jobsOfUser7 = subscribe(new Filter(Set.of(1L, 2L, 3L), 7L, null));
+		RecordingEmitter job3User7 = subscribe(new Filter(Set.of(3L), 7L, null));
+
+		broadcaster.deliver(new JobStatusChangedEvent(List.of(1L, 2L, 3L), "SENDING", "COMPLETED"));
+
+		assertThat(jobsOfUser7.statusEvents(2)).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(job3User7.statusEvents(0)).isEmpty();
+	}
+
+	@Test
+	void skipsKeyLookupWithoutKeyedSubscribers() throws InterruptedException {
+		RecordingEmitter job1 = subscribe(new Filter(Set.of(1L), null, null));
+
+		broadcaster.deliver(new JobStatusChangedEvent(List.of(1L, 2L), "PENDING", "SENDING"));
+
+		assertThat(job1.statusEvents(1)).containsExactly(1L);
+		verify(jobRepository, never()).findJobKeys(any());
+	}
+
+	@Test
+	void disconnectsSubscriberWhoseOutboxOverflows() throws InterruptedException {
+		ReflectionTestUtils.setField(broadcaster, "maxQueuedPerSubscriber", 3);
+		blockSends = true;
+		RecordingEmitter slow = subscribe(new Filter(Set.of(1L), null, null));
+		// The "subscribed" comment is taken from the outbox and blocks in send
+		assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+		for (int i = 0; i < 4; i++) {
+			broadcaster.deliver(new JobStatusChangedEvent(List.of(1L), "PENDING", "SENDING"));
+		}
+
+		assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(broadcaster.subscriberCount()).isZero();
+	}
+
+	private RecordingEmitter subscribe(Filter filter) {
+		SseEmitter emitter = broadcaster.subscribe(filter);
+		assertThat(emitter).isNotNull();
+		return (RecordingEmitter) emitter;
+	}
+
+	private class RecordingEmitter extends SseEmitter {
+
+		final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+		final CountDownLatch sending = new CountDownLatch(1);
+		final CountDownLatch completed = new CountDownLatch(1);
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			sending.countDown();
+			if (blockSends) {
+				try {
+					sendGate.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			sent.add(builder.build().stream()
+					.map(ResponseBodyEmitter.DataWithMediaType::getData)
+					.map(String::valueOf)
+					.collect(Collectors.joining()));
+		}
+
+		@Override
+		public void complete() {
+			completed.countDown();
+		}
+
+		/**
+		 * Job ids of the status events sent from now on: waits for {@code expected} of them, then collects
+		 * whatever else arrives shortly after (which should be nothing).
+		 */
+		List<Long> statusEvents(int expected) throws InterruptedException {
+			List<Long> ids = new ArrayList<>();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+			while (ids.size() < expected) {
+				String text = sent.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+				if (text == null) {
+					break;
+				}
+				addStatusEventId(text, ids);
+			}
+			String extra;
+			while ((extra = sent.poll(200, TimeUnit.MILLISECONDS)) != null) {
+				addStatusEventId(extra, ids);
+			}
+			return ids;
+		}
+
+		private void addStatusEventId(String text, List<Long> ids) {
+			Matcher matcher = STATUS_EVENT_ID.matcher(text);
+			if (matcher.find()) {
+				ids.add(Long.valueOf(matcher.group(1)));
+			}
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.scheduler.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalCacheTests {
+
+	private static final Duration LONG = Duration.ofMinutes(5);
+
+	@Test
+	void expiresEntriesAfterTheirTtl() throws InterruptedException {
+		LocalCache<String, String> cache = new LocalCache<>(10);
+		cache.put("short", "a", Duration.ofMillis(50));
+		cache.put("long", "b", LONG);
+
+		assertThat(cache.get("short")).isEqualTo("a");
+		Thread.sleep(100);
+
+		assertThat(cache.get("short")).isNull();
+		assertThat(cache.get("long")).isEqualTo("b");
+		// The expired entry is dropped on read
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void updatesKeepTheExpiry() {
+		LocalCache<String, Integer> cache = new LocalCache<>(10);
+		cache.put("gone", 1, Duration.ZERO);
+		cache.put("kept", 1, LONG);
+
+		cache.computeIfPresent("gone", count -> count + 1);
+		cache.computeIfPresent("kept", count -> count + 1);
+		cache.computeIfPresent("absent", count -> count + 1);
+
+		assertThat(cache.get("gone")).isNull();
+		assertThat(cache.get("kept")).isEqualTo(2);
+		assertThat(cache.get("absent")).isNull();
+	}
+
+	@Test
+	void shrinksToNinetyPercentWhenFull() {
+		LocalCache<Integer, Integer> cache = new LocalCache<>(10);
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, i, LONG);
+		}
+		assertThat(cache.size()).isEqualTo(10);
+
+		cache.put(10, 10, LONG);
+
+		assertThat(cache.size()).isEqualTo(9);
+	}
+
+	@Test
+	void evictsExpiredEntriesBeforeLiveOnes() {
+		LocalCache<Integer, Integer> cache = new LocalCache<>(10);
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, i, i % 2 == 0 ? Duration.ZERO : LONG);
+		}
+
+		cache.put(10, 10, LONG);
+
+		assertThat(cache.size()).isEqualTo(6);
+		for (int i = 1; i <= 9; i += 2) {
+			assertThat(cache.get(i)).isEqualTo(i);
+		}
+		assertThat(cache.get(10)).isEqualTo(10);
+	}
+}
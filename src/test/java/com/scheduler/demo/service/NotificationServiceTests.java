@@ -0,0 +1,85 @@
+package com.scheduler.demo.service;
+
+import com.scheduler.demo.model.NotificationJob;
+import com.scheduler.demo.repository.NotificationJobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTests {
+
+	@Mock
+	private NotificationJobRepository jobRepo;
+	@Mock
+	private TemplateRenderer templateRenderer;
+	@Mock
+	private NotificationSender sender;
+	@Mock
+	private InstanceIdentity instanceIdentity;
+	@Mock
+	private StatusWriteBuffer statusWriteBuffer;
+	@Mock
+	private LeaseHeartbeat leaseHeartbeat;
+	@Mock
+	private JobKeysResolver jobKeysResolver;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	@InjectMocks
+	private NotificationService service;
+
+	@Test
+	void writesFinalStatusSynchronouslyWhenBufferRefusesIt() {
+		when(sender.sendEmail(any(), anyString())).thenReturn(true);
+		when(instanceIdentity.getId()).thenReturn("node-1");
+		when(statusWriteBuffer.offer(9L, 4, "COMPLETED")).thenReturn(false);
+		when(jobRepo.finishLease(eq(9L), eq("node-1"), eq(4), eq("COMPLETED"), any())).thenReturn(1);
+
+		service.processClaimedJob(claimedJob());
+
+		verify(jobRepo).finishLease(eq(9L), eq("node-1"), eq(4), eq("COMPLETED"), any());
+	}
+
+	@Test
+	void leavesBufferedFinalStatusToTheBuffer() {
+		when(sender.sendEmail(any(), anyString())).thenReturn(true);
+		when(statusWriteBuffer.offer(9L, 4, "COMPLETED")).thenReturn(true);
+
+		service.processClaimedJob(claimedJob());
+
+		verify(jobRepo, never()).finishLease(any(), any(), anyInt(), any(), any());
+	}
+
+	@Test
+	void rejectsMalformedCursorBeforeQuerying() {
+		assertThatThrownBy(() -> service.listJobs(null, "garbage", 10))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		verifyNoInteractions(jobRepo);
+	}
+
+	private static NotificationJob claimedJob() {
+		NotificationJob job = new NotificationJob();
+		job.setId(9L);
+		job.setType("EMAIL");
+		job.setTemplateKey("welcome");
+		job.setPayload("{}");
+		job.setStatus("SENDING");
+		job.setLeaseOwner("node-1");
+		job.setAttempts(4);
+		return job;
+	}
+}
@@ -0,0 +1,78 @@
+package com.scheduler.demo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class StatusWriteBufferTests {
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+	@Mock
+	private InstanceIdentity instanceIdentity;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	@InjectMocks
+	private StatusWriteBuffer buffer;
+
+	private final CountDownLatch writing = new CountDownLatch(1);
+	private final CountDownLatch releaseWrite = new CountDownLatch(1);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(buffer, "capacity", 2);
+		ReflectionTestUtils.setField(buffer, "batchSize", 1);
+		ReflectionTestUtils.setField(buffer, "flushIntervalMs", 10L);
+		ReflectionTestUtils.setField(buffer, "maxAttempts", 1);
+		// The flusher blocks in its first write, so later offers pile up in the buffer
+		lenient().doAnswer(invocation -> {
+			writing.countDown();
+			releaseWrite.await(5, TimeUnit.SECONDS);
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		releaseWrite.countDown();
+		buffer.shutdown();
+	}
+
+	@Test
+	void refusesStatusesWhenDisabled() {
+		buffer.start();
+
+		assertThat(buffer.offer(1L, 1, "COMPLETED")).isFalse();
+	}
+
+	@Test
+	void refusesStatusesWhenFull() throws InterruptedException {
+		ReflectionTestUtils.setField(buffer, "enabled", true);
+		buffer.start();
+
+		assertThat(buffer.offer(1L, 1, "COMPLETED")).isTrue();
+		assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(buffer.offer(2L, 1, "COMPLETED")).isTrue();
+		assertThat(buffer.offer(3L, 1, "FAILED")).isTrue();
+
+		assertThat(buffer.offer(4L, 1, "COMPLETED")).isFalse();
+	}
+}